@@ -0,0 +1,95 @@
+package com.restful.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 시작 후 첫 요청까지 걸린 시간 (time-to-first-request) 측정
+ * 매 측정마다 새 JVM(fork)에서 애플리케이션을 띄우고 GET /actuator/health 응답을 받을 때까지의 시간을 잰다.
+ * - default : 기본 설정 (ddl-auto update, swagger, 모든 빈 즉시 생성)
+ * - fast : fast 프로필 (application-fast.yml)
+ * 두 경우 모두 같은 스키마를 미리 만들어 둔 인메모리 H2를 사용하므로, 차이는 설정에 따른 시작 비용이다.
+ * AppCDS 효과는 같은 JVM 옵션으로 비교해야 하므로 build/cds에서 -XX:SharedArchiveFile 유무로 따로 잰다. (build.gradle cdsArchive)
+ *
+ * 실행 : ./gradlew jmh -PjmhIncludes=StartupBenchmark
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    private static final String DB_URL = "jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1";
+
+    @Param({"default", "fast"})
+    private String profile;
+
+    private ConfigurableApplicationContext context;
+
+    // validate가 통과하도록 엔티티와 같은 스키마를 JDBC로 만든다. (스프링, 하이버네이트 클래스를 미리 읽지 않도록)
+    @Setup(Level.Trial)
+    public void createSchema() throws Exception {
+        try (Connection connection = DriverManager.getConnection(DB_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create sequence user_seq start with 1 increment by 50");
+            statement.execute("create table user (id bigint not null, password varchar(100), roles varchar(100),"
+                    + " uid varchar(30) not null, updated_at timestamp, username varchar(100) not null, version bigint,"
+                    + " primary key (id))");
+            statement.execute("alter table user add constraint uk_user_uid unique (uid)");
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int firstRequest() throws Exception {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--server.port=0",
+                "--spring.datasource.url=" + DB_URL,
+                "--logging.level.root=WARN"));
+        if ("fast".equals(profile)) {
+            args.add("--spring.profiles.active=fast");
+        }
+        context = new SpringApplicationBuilder(ApiApplication.class).run(args.toArray(new String[0]));
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/actuator/health").openConnection();
+        try {
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.restful.api.advice;
+
+import com.restful.api.advice.exception.CUserNotFoundException;
+import com.restful.api.config.CompiledMessageSource;
+import com.restful.api.config.MessageConfig;
+import com.restful.api.response.CommonResult;
+import com.restful.api.response.ResponseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// ExceptionAdvice가 MessageConfig의 MessageSource로 실패 응답을 만드는 비용 측정
+@State(Scope.Thread) // LocaleContextHolder는 스레드 단위로 설정된다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExceptionAdviceBenchmark {
+
+    @Param({"ko", "en"})
+    private String lang;
+
+    private ExceptionAdvice exceptionAdvice;
+    private CUserNotFoundException userNotFound;
+    private Exception unknown;
+
+    @Setup
+    public void setUp() {
+        CompiledMessageSource messageSource = new MessageConfig().messageSource("i18n/exception");
+        exceptionAdvice = new ExceptionAdvice(new ResponseService(), messageSource, new SimpleMeterRegistry());
+        userNotFound = new CUserNotFoundException();
+        unknown = new IllegalStateException();
+        LocaleContextHolder.setLocale(new Locale(lang));
+    }
+
+    @Benchmark
+    public CommonResult userNotFound() {
+        return exceptionAdvice.userNotFoundException(null, userNotFound);
+    }
+
+    @Benchmark
+    public CommonResult unknown() {
+        return exceptionAdvice.defaultException(null, unknown);
+    }
+}
@@ -0,0 +1,64 @@
+package com.restful.api.advice.exception;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+ * 예외 하나를 만들어 던지고 받는 비용 측정
+ * - stackTrace : 이전 방식, 생성할 때 호출 스택 전체를 기록한다. (fillInStackTrace)
+ * - stackless : CException, 스택 트레이스를 만들지 않는다.
+ * - cached : 미리 만들어 둔 INSTANCE를 던진다.
+ * depth만큼 호출을 쌓은 뒤 던지므로, 스프링 MVC 컨트롤러 안처럼 스택이 깊을수록 stackTrace의 비용이 커진다.
+ *
+ * 실행 : ./gradlew jmh -PjmhIncludes=ExceptionCostBenchmark
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExceptionCostBenchmark {
+
+    @Param({"10", "150"})
+    private int depth;
+
+    @Benchmark
+    public Object stackTrace() {
+        return throwAt(depth, StackTraceException::new);
+    }
+
+    @Benchmark
+    public Object stackless() {
+        return throwAt(depth, CUserNotFoundException::new);
+    }
+
+    @Benchmark
+    public Object cached() {
+        return throwAt(depth, () -> CUserNotFoundException.INSTANCE);
+    }
+
+    private static Object throwAt(int depth, Supplier<RuntimeException> exception) {
+        try {
+            return call(depth, exception);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static Object call(int depth, Supplier<RuntimeException> exception) {
+        if (depth == 0) {
+            throw exception.get();
+        }
+        return call(depth - 1, exception);
+    }
+
+    private static class StackTraceException extends RuntimeException {
+    }
+}
@@ -0,0 +1,49 @@
+package com.restful.api.config.security;
+
+import com.restful.api.controller.HelloController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// JwtAuthenticationFilter를 포함한 MockMvc 요청 한 건의 비용 측정
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private MockMvc mockMvc;
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = JwtTokenProviderBenchmark.newProvider();
+        token = jwtTokenProvider.createToken("1", Collections.singletonList("ROLE_USER"));
+        mockMvc = MockMvcBuilders.standaloneSetup(new HelloController())
+                .addFilters(new JwtAuthenticationFilter(jwtTokenProvider, new SimpleMeterRegistry()))
+                .build();
+    }
+
+    @Benchmark
+    public MvcResult withoutToken() throws Exception {
+        return mockMvc.perform(get("/helloworld/string")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult withToken() throws Exception {
+        return mockMvc.perform(get("/helloworld/string").header("X-AUTH-TOKEN", token)).andReturn();
+    }
+}
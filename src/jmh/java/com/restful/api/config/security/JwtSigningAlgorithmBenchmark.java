@@ -0,0 +1,66 @@
+package com.restful.api.config.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 서명 알고리즘별 토큰 발급(sign) / 검증(verify) 처리량 비교
+ * verify는 검증된 토큰 캐시를 거치지 않는 파싱 + 서명 검증 비용이다. (캐시 적중 시 비용은 JwtTokenProviderBenchmark 참고)
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtSigningAlgorithmBenchmark {
+
+    @Param({"HS256", "RS256", "ES256"})
+    private String algorithm;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.forName(algorithm);
+        JwtKey key;
+        if (signatureAlgorithm.isHmac()) {
+            key = JwtKey.hmac("bench", signatureAlgorithm, "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+        } else if (signatureAlgorithm.isRsa()) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair pair = generator.generateKeyPair();
+            key = JwtKey.asymmetric("bench", signatureAlgorithm, pair.getPrivate(), pair.getPublic());
+        } else {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+            key = JwtKey.asymmetric("bench", signatureAlgorithm, pair.getPrivate(), pair.getPublic());
+        }
+        jwtTokenProvider = JwtTokenProviderBenchmark.newProvider(new InMemoryJwtKeyring("bench", Collections.singletonList(key)));
+        token = jwtTokenProvider.createToken("1", Collections.singletonList("ROLE_USER"));
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtTokenProvider.createToken("1", Collections.singletonList("ROLE_USER"));
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return jwtTokenProvider.validateToken(token);
+    }
+}
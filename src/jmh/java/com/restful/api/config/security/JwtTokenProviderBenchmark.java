@@ -0,0 +1,93 @@
+package com.restful.api.config.security;
+
+import com.restful.api.entity.User;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// JWT 토큰 발급/검증 비용 측정, revokedTokens는 폐기 목록(denylist)에 들어있는 다른 토큰 수
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+
+    @Param({"0", "100000"})
+    private int revokedTokens;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private JwtRevocationList revocationList;
+    private String token;
+    private long probeExpiresAt;
+
+    @Setup
+    public void setUp() {
+        revocationList = new JwtRevocationList(new InMemoryRevocationBackend());
+        jwtTokenProvider = newProvider(revocationList);
+        token = jwtTokenProvider.createToken("1", Collections.singletonList("ROLE_USER"));
+        jwtTokenProvider.getAuthentication(token); // 캐시 적재
+
+        long expiresAt = System.currentTimeMillis() + 1000L * 60 * 60;
+        probeExpiresAt = expiresAt + revokedTokens / 2;
+        for (int i = 0; i < revokedTokens; i++) {
+            revocationList.revoke(UUID.randomUUID().toString(), expiresAt + i);
+        }
+    }
+
+    @Benchmark
+    public String createToken() {
+        return jwtTokenProvider.createToken("1", Collections.singletonList("ROLE_USER"));
+    }
+
+    // 캐시를 거치지 않는 파싱 + 서명 검증
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    // 필터에서 사용하는 경로 : 검증된 토큰 캐시 적중 + 폐기 여부 확인
+    @Benchmark
+    public Authentication getAuthenticationCached() {
+        return jwtTokenProvider.getAuthentication(token);
+    }
+
+    static JwtTokenProvider newProvider() {
+        return newProvider(new JwtRevocationList(new InMemoryRevocationBackend()));
+    }
+
+    static JwtTokenProvider newProvider(JwtRevocationList revocationList) {
+        JwtKey key = JwtKey.hmac("default", SignatureAlgorithm.HS256, "restfulapi".getBytes(StandardCharsets.UTF_8));
+        return newProvider(new InMemoryJwtKeyring("default", Collections.singletonList(key)), revocationList);
+    }
+
+    static JwtTokenProvider newProvider(JwtKeyring keyring) {
+        return newProvider(keyring, new JwtRevocationList(new InMemoryRevocationBackend()));
+    }
+
+    static JwtTokenProvider newProvider(JwtKeyring keyring, JwtRevocationList revocationList) {
+        UserDetailsService userDetailsService = userPk -> User.builder()
+                .id(Long.valueOf(userPk))
+                .uid("benchmark@restful.com")
+                .username("benchmark")
+                .build();
+        return new JwtTokenProvider(userDetailsService, new JwtTokenCache(10_000), keyring, revocationList);
+    }
+
+    // 폐기 여부 확인만의 비용
+    @Benchmark
+    public boolean isRevoked() {
+        return revocationList.isRevoked("not-revoked", probeExpiresAt);
+    }
+}
@@ -0,0 +1,86 @@
+package com.restful.api.config.security;
+
+import com.restful.api.ApiApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+
+import javax.servlet.FilterChain;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 공개 주소(health check 등) 요청 한 건이 시큐리티 필터 체인에서 쓰는 비용 측정
+ * - publicPath : 실제 설정, 공개 주소는 필터가 없는 체인(web.ignoring)으로 바로 통과한다.
+ * - fullChain : 같은 요청을 인증이 필요한 주소와 같은 필터 체인(permitAll)으로 처리하던 이전 설정
+ * 두 경우 모두 컨트롤러는 호출하지 않으므로 결과 차이가 요청마다 줄어든 필터 처리 비용이다.
+ *
+ * 실행 : ./gradlew jmh -PjmhIncludes=SecurityFilterChainBenchmark
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SecurityFilterChainBenchmark {
+
+    private static final FilterChain APPLICATION = (request, response) -> {
+    };
+
+    @Param({"/actuator/health", "/.well-known/jwks.json"})
+    private String path;
+
+    private ConfigurableApplicationContext context;
+    private FilterChainProxy publicPath;
+    private FilterChainProxy fullChain;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ApiApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:filter" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.throttle.rate-limit.permits-per-second=1000000000", // 요청 수 제한에 걸리지 않도록 한다.
+                "--spring.throttle.rate-limit.burst=1000000000",
+                "--logging.level.root=WARN");
+        publicPath = context.getBean("springSecurityFilterChain", FilterChainProxy.class);
+
+        // 마지막 체인이 anyRequest에 해당하는 전체 필터 체인이다.
+        List<SecurityFilterChain> chains = publicPath.getFilterChains();
+        fullChain = new FilterChainProxy(chains.get(chains.size() - 1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse publicPath() throws Exception {
+        return perform(publicPath);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse fullChain() throws Exception {
+        return perform(fullChain);
+    }
+
+    private MockHttpServletResponse perform(FilterChainProxy proxy) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        proxy.doFilter(request, response, APPLICATION);
+        return response;
+    }
+}
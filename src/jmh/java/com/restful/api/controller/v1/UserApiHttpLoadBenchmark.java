@@ -0,0 +1,188 @@
+package com.restful.api.controller.v1;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.api.ApiApplication;
+import com.restful.api.dto.UserBatchItem;
+import com.restful.api.service.UserBatchService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * DB 지연이 있을 때 sync / async 실행 모드의 처리량 비교 (HTTP 부하 테스트)
+ * 애플리케이션을 실제 톰캣(임의 포트)으로 띄우고 HTTP 클라이언트로 요청을 보낸다. 시큐리티 필터(JWT 인증, 요청 수 제한)도 모두 거친다.
+ * 클라이언트 스레드 48개는 GET /v1/users/{id}(DB 조회)를, 8개는 GET /actuator/health(DB를 쓰지 않음)를 보낸다.
+ * 톰캣 워커 스레드는 16개로 줄여, sync 모드에서 워커 스레드가 DB 지연 동안 묶이면 health 요청도 함께 밀리는지 본다.
+ * RequestExecutorBenchmark는 같은 상황을 톰캣 없이 스레드 풀로 흉내낸 것이며, 실제 처리량은 이 벤치마크로 확인한다.
+ *
+ * 실행 : ./gradlew jmh -PjmhIncludes=UserApiHttpLoadBenchmark
+ *
+ * - DB 지연은 하이버네이트가 SQL을 실행하기 전에(StatementInspector) dbLatencyMillis만큼 멈춰서 넣는다. 시드 데이터를 넣은 뒤부터 적용한다.
+ * - DB 조회 비용을 보기 위해 회원 캐시(spring.cache)는 끈다.
+ * - 요청 수 제한, 동시 처리 수 제한은 클라이언트 하나에서 보내는 부하를 거절하지 않도록 충분히 크게 둔다.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class UserApiHttpLoadBenchmark {
+
+    private static final int SEED_USERS = 1_000;
+    private static final int CONTAINER_THREADS = 16;
+    private static final int DB_CONCURRENCY = 20;
+
+    static {
+        System.setProperty("http.maxConnections", "64"); // 클라이언트 스레드마다 keep-alive 연결을 재사용한다.
+    }
+
+    @Param({"sync", "async"})
+    private String executionMode;
+
+    @Param({"5", "20"})
+    private long dbLatencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private String baseUrl;
+    private String accessToken;
+
+    @Setup
+    public void setUp() throws IOException {
+        DbLatency.millis = 0;
+        context = new SpringApplicationBuilder(ApiApplication.class).run(
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + CONTAINER_THREADS,
+                "--spring.datasource.url=jdbc:h2:mem:httpload" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + DB_CONCURRENCY,
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.open-in-view=false",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + DbLatency.class.getName(),
+                "--spring.cache.type=none",
+                "--spring.users.execution.mode=" + executionMode,
+                "--spring.users.execution.db-concurrency=" + DB_CONCURRENCY,
+                "--spring.throttle.rate-limit.permits-per-second=1000000",
+                "--spring.throttle.rate-limit.burst=1000000",
+                "--spring.throttle.concurrency.initial-limit=10000",
+                "--spring.throttle.concurrency.min-limit=10000",
+                "--spring.throttle.concurrency.max-limit=10000",
+                "--logging.level.root=WARN");
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        List<UserBatchItem> seed = new ArrayList<>(SEED_USERS);
+        for (int i = 0; i < SEED_USERS; i++) {
+            UserBatchItem item = new UserBatchItem();
+            item.setUid("seed" + i);
+            item.setUsername("seed" + i);
+            seed.add(item);
+        }
+        context.getBean(UserBatchService.class).create(seed.iterator());
+
+        String form = "uid=load@restful.com&password=password";
+        request("POST", "/v1/signup", form + "&name=load");
+        String signin = request("POST", "/v1/signin", form);
+        accessToken = new ObjectMapper().readTree(signin).path("data").path("accessToken").asText();
+        DbLatency.millis = dbLatencyMillis;
+    }
+
+    @TearDown
+    public void tearDown() {
+        DbLatency.millis = 0;
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(48)
+    public String findById() throws IOException {
+        return request("GET", "/v1/users/" + ThreadLocalRandom.current().nextLong(1, SEED_USERS + 1), null);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(8)
+    public String health() throws IOException {
+        return request("GET", "/actuator/health", null);
+    }
+
+    // 200이 아니면 예외를 던지므로, 거절되거나 실패한 요청은 처리량에 들어가지 않고 벤치마크가 실패한다.
+    private String request(String method, String path, String form) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        if (accessToken != null) {
+            connection.setRequestProperty("X-AUTH-TOKEN", accessToken);
+        }
+        if (form != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(form.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        if (status != HttpURLConnection.HTTP_OK) {
+            throw new IllegalStateException(method + " " + path + " : " + status + " " + read(connection.getErrorStream()));
+        }
+        return read(connection.getInputStream());
+    }
+
+    // 연결을 재사용하려면 응답 본문을 끝까지 읽고 닫아야 한다.
+    private static String read(InputStream stream) throws IOException {
+        if (stream == null) {
+            return "";
+        }
+        try (InputStream in = stream) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+            }
+            return new String(body.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // 하이버네이트가 SQL을 실행할 때마다 DB 왕복 지연을 흉내낸다.
+    public static class DbLatency implements StatementInspector {
+
+        static volatile long millis;
+
+        @Override
+        public String inspect(String sql) {
+            if (millis > 0) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.restful.api.controller.v1;
+
+import com.restful.api.ApiApplication;
+import com.restful.api.dto.UserBatchItem;
+import com.restful.api.response.PageCursor;
+import com.restful.api.service.UserBatchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/*
+ * 커넥션 풀, statement 캐시, fetch/batch 크기별 UserController 응답 시간 측정 (DB 부하 테스트)
+ * 설정 조합(@Param)마다 인메모리 H2(MySQL 모드)로 애플리케이션을 새로 띄우고, 회원을 미리 등록한 뒤 요청을 보낸다.
+ * SampleTime 모드이므로 결과에 p0.50, p0.99 등 응답 시간 분포가 함께 출력된다.
+ *
+ * 실행 : ./gradlew jmh -PjmhIncludes=UserApiLoadBenchmark
+ *
+ * - 클라이언트 스레드(@Threads)를 풀 크기보다 많이 두어 커넥션 대기가 생기는 상황을 만든다.
+ * - DB 조회 비용을 보기 위해 회원 캐시(spring.cache)는 끈다.
+ * - 인증은 측정 대상이 아니므로 시큐리티 필터 없이 컨트롤러를 직접 호출한다. (JwtAuthenticationFilterBenchmark 참고)
+ * - statementCacheSize는 H2의 QUERY_CACHE_SIZE이다. MySQL에서는 prepStmtCacheSize에 해당한다. (application-prod.yml)
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(32)
+public class UserApiLoadBenchmark {
+
+    private static final int SEED_USERS = 10_000;
+    private static final int BATCH_ITEMS = 100;
+
+    @Param({"10", "20", "40"})
+    private int poolSize;
+
+    @Param({"8", "64"})
+    private int statementCacheSize;
+
+    @Param({"100", "500"})
+    private int fetchSize;
+
+    @Param({"50", "100"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ApiApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load" + System.nanoTime()
+                        + ";MODE=MySQL;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=" + statementCacheSize,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.open-in-view=false",
+                "--spring.jpa.properties.hibernate.jdbc.fetch_size=" + fetchSize,
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "--spring.cache.type=none",
+                "--spring.users.execution.db-concurrency=" + poolSize,
+                "--logging.level.root=WARN");
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+
+        List<UserBatchItem> seed = new ArrayList<>(SEED_USERS);
+        for (int i = 0; i < SEED_USERS; i++) {
+            seed.add(item("seed" + i));
+        }
+        context.getBean(UserBatchService.class).create(seed.iterator());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int findById() throws Exception {
+        return perform(get("/v1/users/{id}", ThreadLocalRandom.current().nextLong(1, SEED_USERS + 1)));
+    }
+
+    @Benchmark
+    public int findPage() throws Exception {
+        String cursor = PageCursor.encode(ThreadLocalRandom.current().nextLong(0, SEED_USERS));
+        return perform(get("/v1/users").param("cursor", cursor).param("size", "100"));
+    }
+
+    @Benchmark
+    public int save() throws Exception {
+        String uid = "load" + sequence.incrementAndGet();
+        return perform(post("/v1/users").param("uid", uid).param("username", uid));
+    }
+
+    @Benchmark
+    public int saveBatch() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < BATCH_ITEMS; i++) {
+            String uid = "batch" + sequence.incrementAndGet();
+            body.append("{\"uid\":\"").append(uid).append("\",\"username\":\"").append(uid).append("\"}\n");
+        }
+        return perform(post("/v1/users/batch").contentType(MediaType.APPLICATION_NDJSON).content(body.toString()));
+    }
+
+    // CompletableFuture를 반환하는 핸들러는 비동기로 시작되므로 결과가 나올 때까지 기다린다.
+    private int perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result.getResponse().getStatus();
+    }
+
+    private static UserBatchItem item(String uid) {
+        UserBatchItem item = new UserBatchItem();
+        item.setUid(uid);
+        item.setUsername(uid);
+        return item;
+    }
+}
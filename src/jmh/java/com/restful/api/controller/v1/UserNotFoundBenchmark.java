@@ -0,0 +1,80 @@
+package com.restful.api.controller.v1;
+
+import com.restful.api.ApiApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/*
+ * 없는 회원 id 조회(GET /v1/users/{id} -> 404) 처리량 측정
+ * 임의의 id를 찔러보는 요청처럼 회원이 한 명도 없는 DB에 id를 바꿔가며 조회하므로, 모든 요청이 DB 조회 후 CUserNotFoundException -> ExceptionAdvice를 거친다.
+ * 결과는 초당 처리 수(ops/s)이며, 이전 방식(스택 트레이스를 만드는 예외, 500)과는 같은 벤치마크를 이전 커밋에서 실행해 비교한다.
+ * 예외 생성 비용만 따로 보려면 ExceptionCostBenchmark를 실행한다.
+ *
+ * 실행 : ./gradlew jmh -PjmhIncludes=UserNotFoundBenchmark
+ *
+ * - 인증은 측정 대상이 아니므로 시큐리티 필터 없이 컨트롤러를 직접 호출한다. (UserApiLoadBenchmark와 같음)
+ * - 요청 수 제한, 과부하 차단도 필터에서 하므로 적용되지 않는다.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(8)
+public class UserNotFoundBenchmark {
+
+    @Param({"sync", "async"})
+    private String executionMode;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ApiApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:notfound" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.open-in-view=false",
+                "--spring.users.execution.mode=" + executionMode,
+                "--logging.level.root=WARN");
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int findMissingUser() throws Exception {
+        MvcResult result = mockMvc.perform(get("/v1/users/{id}", ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE))).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result.getResponse().getStatus();
+    }
+}
@@ -0,0 +1,105 @@
+package com.restful.api.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.api.dto.UserFields;
+import com.restful.api.dto.UserView;
+import com.restful.api.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 결과 객체 생성과 JSON 직렬화 비용 측정 (User 엔티티 / UserView / 일부 필드만 선택한 UserView, data가 없는 성공/실패 결과)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private ResponseService responseService;
+    private FailureTemplate failure;
+    private SingleResult<User> singleResult;
+    private ListResult<User> listResult;
+    private SingleResult<UserView> singleView;
+    private ListResult<UserView> listView;
+    private ListResult<UserView> listViewIdUid;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        responseService = new ResponseService();
+        failure = new FailureTemplate(-1000, "존재하지 않는 회원입니다.");
+
+        List<User> users = new ArrayList<>(listSize);
+        for (long id = 1; id <= listSize; id++) {
+            users.add(User.builder().id(id).uid("user" + id + "@restful.com").username("user" + id).build());
+        }
+        singleResult = responseService.getSingleResult(users.get(0));
+        listResult = responseService.getListResult(users, PageCursor.encode((long) listSize));
+
+        UserFields idUid = UserFields.parse("id,uid");
+        List<UserView> views = new ArrayList<>(listSize);
+        List<UserView> idUidViews = new ArrayList<>(listSize);
+        for (User user : users) {
+            UserView view = UserView.of(user);
+            views.add(view);
+            idUidViews.add(view.select(idUid));
+        }
+        singleView = responseService.getSingleResult(views.get(0));
+        listView = responseService.getListResult(views, PageCursor.encode((long) listSize));
+        listViewIdUid = responseService.getListResult(idUidViews, PageCursor.encode((long) listSize));
+    }
+
+    @Benchmark
+    public byte[] singleResult() throws Exception {
+        return objectMapper.writeValueAsBytes(singleResult);
+    }
+
+    @Benchmark
+    public byte[] listResult() throws Exception {
+        return objectMapper.writeValueAsBytes(listResult);
+    }
+
+    @Benchmark
+    public byte[] singleView() throws Exception {
+        return objectMapper.writeValueAsBytes(singleView);
+    }
+
+    @Benchmark
+    public byte[] listView() throws Exception {
+        return objectMapper.writeValueAsBytes(listView);
+    }
+
+    @Benchmark
+    public byte[] listViewIdUid() throws Exception {
+        return objectMapper.writeValueAsBytes(listViewIdUid);
+    }
+
+    @Benchmark
+    public byte[] successResult() throws Exception {
+        return objectMapper.writeValueAsBytes(responseService.getSuccessResult());
+    }
+
+    @Benchmark
+    public byte[] failResult() throws Exception {
+        return objectMapper.writeValueAsBytes(responseService.getFailResult(failure));
+    }
+
+    // 결과 객체 생성까지 포함한 작은 단건 응답
+    @Benchmark
+    public byte[] newSingleView() throws Exception {
+        return objectMapper.writeValueAsBytes(responseService.getSingleResult(singleView.getData()));
+    }
+}
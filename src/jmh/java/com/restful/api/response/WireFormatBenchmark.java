@@ -0,0 +1,91 @@
+package com.restful.api.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.api.dto.UserView;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * 응답 형식별 직렬화 비용과 전송 크기 비교 (JSON / CBOR / Smile, 압축 전/후)
+ * 직렬화 시간은 serialize, 직렬화 + gzip 시간은 serializeGzip 결과로 비교한다.
+ * 전송 크기는 각 결과의 보조 지표 bytes(본문 크기, gzip은 압축 후 크기)로 함께 나온다.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"20", "100"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private ListResult<UserView> listResult;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = newObjectMapper(format);
+
+        List<UserView> users = new ArrayList<>(listSize);
+        Instant now = Instant.now();
+        for (long id = 1; id <= listSize; id++) {
+            users.add(new UserView(id, "user" + id + "@restful.com", "user" + id, 0L, now));
+        }
+        listResult = new ResponseService().getListResult(users, PageCursor.encode((long) listSize));
+    }
+
+    @Benchmark
+    public byte[] serialize(WireSize size) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(listResult);
+        size.bytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public byte[] serializeGzip(WireSize size) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, listResult);
+        }
+        byte[] body = bytes.toByteArray();
+        size.bytes = body.length;
+        return body;
+    }
+
+    // 마지막으로 만든 본문 크기, 더하지 않고 덮어쓰므로 시간으로 나누지 않은 값(EVENTS)이 그대로 본문 크기이다.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        public long bytes;
+    }
+
+    private static ObjectMapper newObjectMapper(String format) {
+        switch (format) {
+            case "cbor":
+                return Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile":
+                return Jackson2ObjectMapperBuilder.smile().build();
+            default:
+                return Jackson2ObjectMapperBuilder.json().build();
+        }
+    }
+}
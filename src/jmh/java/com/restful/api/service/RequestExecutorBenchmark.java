@@ -0,0 +1,83 @@
+package com.restful.api.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * DB 지연이 있을 때 sync / async 실행 모드의 처리량 비교 (시뮬레이션)
+ * 톰캣, HTTP, DB 없이 RequestExecutor만 스레드 풀과 sleep으로 흉내낸다. 실제 HTTP 부하 테스트는 UserApiHttpLoadBenchmark이다.
+ * container는 톰캣 워커 풀(16개)을 흉내내며, 클라이언트 스레드 48개는 DB를 조회하는 요청을, 8개는 DB를 쓰지 않는 health 요청을 보낸다.
+ * sync 모드에서는 워커 스레드가 DB 지연 동안 묶여 있으므로 health 요청도 함께 밀리고,
+ * async 모드에서는 워커 스레드가 바로 반환되므로 health 요청 처리량이 유지된다. DB 요청 처리량은 두 모드 모두 db-concurrency로 제한된다.
+ */
+
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RequestExecutorBenchmark {
+
+    private static final int CONTAINER_THREADS = 16;
+    private static final int DB_CONCURRENCY = 20;
+
+    @Param({"sync", "async"})
+    private String mode;
+
+    @Param({"5", "20"})
+    private long dbLatencyMillis;
+
+    private ExecutorService container;
+    private RequestExecutor requestExecutor;
+
+    @Setup
+    public void setUp() {
+        container = Executors.newFixedThreadPool(CONTAINER_THREADS);
+        requestExecutor = new RequestExecutor(mode, 64, 4096, DB_CONCURRENCY, 10_000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.shutdownNow();
+        requestExecutor.shutdown();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(48)
+    public Long dbRequest() throws Exception {
+        // 워커 스레드가 핸들러를 실행하고, 응답은 핸들러가 반환한 future가 완료될 때 나간다.
+        return CompletableFuture.supplyAsync(() -> requestExecutor.submit(this::queryWithLatency), container)
+                .thenCompose(response -> response)
+                .get();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(8)
+    public String healthRequest() throws Exception {
+        return CompletableFuture.supplyAsync(() -> "UP", container).get();
+    }
+
+    // DB 조회 지연을 흉내낸다. (실제 DB를 사용하지 않는다)
+    private Long queryWithLatency() {
+        try {
+            Thread.sleep(dbLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 1L;
+    }
+}
@@ -0,0 +1,68 @@
+package com.restful.api.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 회원 수별 검색 색인(NgramIndex) 검색 시간 측정
+ * 회원 수가 늘어나도 검색 시간이 max-candidates로 정한 수준을 넘지 않는지 확인한다.
+ * - exactUid : 결과가 몇 건인 구체적인 검색어
+ * - commonPrefix : 거의 모든 회원이 일치하는 접두어 (후보 수 제한에 걸린다)
+ * - substring : 중간에 포함된 문자열
+ * - noMatch : 일치하는 회원이 없는 검색어
+ *
+ * 실행 : ./gradlew jmh -PjmhIncludes=UserSearchBenchmark
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserSearchBenchmark {
+
+    private static final int LIMIT = 20;
+    private static final int MAX_CANDIDATES = 5000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int users;
+
+    private NgramIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new NgramIndex();
+        Random random = new Random(42);
+        for (int i = 0; i < users; i++) {
+            index.put(i, "user" + i + "@restful.com", "name" + Integer.toString(random.nextInt(1 << 30), 36));
+        }
+    }
+
+    @Benchmark
+    public List<NgramIndex.Hit> exactUid() {
+        return index.search("user1234@restful.com", LIMIT, MAX_CANDIDATES);
+    }
+
+    @Benchmark
+    public List<NgramIndex.Hit> commonPrefix() {
+        return index.search("user", LIMIT, MAX_CANDIDATES);
+    }
+
+    @Benchmark
+    public List<NgramIndex.Hit> substring() {
+        return index.search("abc", LIMIT, MAX_CANDIDATES);
+    }
+
+    @Benchmark
+    public List<NgramIndex.Hit> noMatch() {
+        return index.search("nobody", LIMIT, MAX_CANDIDATES);
+    }
+}
@@ -1,17 +1,30 @@
 package com.restful.api.advice;
 
+import com.restful.api.advice.exception.CDuplicatedUidException;
+import com.restful.api.advice.exception.CInvalidCursorException;
+import com.restful.api.advice.exception.CInvalidTokenException;
+import com.restful.api.advice.exception.CServiceBusyException;
+import com.restful.api.advice.exception.CSigninFailedException;
 import com.restful.api.advice.exception.CUserNotFoundException;
+import com.restful.api.advice.exception.CVersionConflictException;
+import com.restful.api.config.CompiledMessageSource;
 import com.restful.api.response.CommonResult;
 import com.restful.api.response.ResponseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 
 /*
@@ -37,29 +50,84 @@ public class ExceptionAdvice {
 
     private final ResponseService responseService;
 
-    private final MessageSource messageSource;
+    private final CompiledMessageSource messageSource;
+
+    private final MeterRegistry meterRegistry;
+
+    // key별 exception.handler 타이머, 요청마다 레지스트리에서 태그로 다시 찾지 않는다.
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
 
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     protected CommonResult defaultException(HttpServletRequest request, Exception e) {
         // 예외 처리의 메시지를 MessageSource에서 가져오도록 수정
-        return responseService.getFailResult(Integer.valueOf(getMessage("unKnown.code")), getMessage("unKnown.message"));
+        return getFailResult("unKnown");
     }
 
+    // 없는 회원 id로 조회, 수정한 경우
     @ExceptionHandler(CUserNotFoundException.class)
-    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
     protected CommonResult userNotFoundException(HttpServletRequest request, CUserNotFoundException e) {
         // 예외 처리의 메시지를 MessageSource에서 가져오도록 수정
-        return responseService.getFailResult(Integer.valueOf(getMessage("userNotFound.code")), getMessage("userNotFound.message"));
+        return getFailResult("userNotFound");
+    }
+
+    @ExceptionHandler(CInvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    protected CommonResult invalidCursorException(HttpServletRequest request, CInvalidCursorException e) {
+        return getFailResult("invalidCursor");
+    }
+
+    // If-Match로 보낸 ETag가 현재 버전과 다른 경우
+    @ExceptionHandler(CVersionConflictException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    protected CommonResult versionConflictException(HttpServletRequest request, CVersionConflictException e) {
+        return getFailResult("versionConflict");
+    }
+
+    // 조회 후 저장하기 전에 다른 요청이 먼저 수정한 경우 (@Version 검사 실패)
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    protected CommonResult optimisticLockingFailureException(HttpServletRequest request, ObjectOptimisticLockingFailureException e) {
+        return getFailResult("versionConflict");
+    }
+
+    // 없는 uid이거나 비밀번호가 다른 경우 (어느 쪽인지는 알려주지 않는다)
+    @ExceptionHandler(CSigninFailedException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    protected CommonResult signinFailedException(HttpServletRequest request, CSigninFailedException e) {
+        return getFailResult("signinFailed");
+    }
+
+    // 재발급 토큰이 유효하지 않거나 이미 사용(폐기)된 경우
+    @ExceptionHandler(CInvalidTokenException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    protected CommonResult invalidTokenException(HttpServletRequest request, CInvalidTokenException e) {
+        return getFailResult("invalidToken");
+    }
+
+    // 가입하려는 uid를 이미 사용 중인 경우
+    @ExceptionHandler(CDuplicatedUidException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    protected CommonResult duplicatedUidException(HttpServletRequest request, CDuplicatedUidException e) {
+        return getFailResult("duplicatedUid");
     }
 
-    // code 정보에 해당하는 메시지를 조회합니다.
-    private String getMessage(String code) {
-        return getMessage(code, null);
+    // DB bulkhead, 실행 큐가 가득 찼거나 비동기 요청 제한 시간을 넘긴 경우
+    @ExceptionHandler({CServiceBusyException.class, AsyncRequestTimeoutException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    protected CommonResult serviceBusyException(HttpServletRequest request, Exception e) {
+        return getFailResult("serviceBusy");
     }
 
-    // code 정보, 추가 argument로 현재 locale에 맞는 메시지를 조회합니다.
-    private String getMessage(String code, Object[] args) {
-        return messageSource.getMessage(code, args, LocaleContextHolder.getLocale());
+    // key(ex. userNotFound)에 해당하는 code, message로 현재 locale에 맞는 실패 결과를 만듭니다.
+    // code, message는 시작할 때 미리 읽어둔 템플릿을 사용하므로 메시지 조회와 숫자 변환을 다시 하지 않습니다.
+    // 처리 시간은 exception.handler 타이머에 key별로 기록합니다.
+    private CommonResult getFailResult(String key) {
+        long started = System.nanoTime();
+        CommonResult result = responseService.getFailResult(messageSource.getFailure(key, LocaleContextHolder.getLocale()));
+        timers.computeIfAbsent(key, handler -> meterRegistry.timer("exception.handler", "handler", handler))
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return result;
     }
 }
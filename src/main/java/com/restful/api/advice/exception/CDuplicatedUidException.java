@@ -0,0 +1,18 @@
+package com.restful.api.advice.exception;
+
+public class CDuplicatedUidException extends CException {
+
+    public static final CDuplicatedUidException INSTANCE = new CDuplicatedUidException();
+
+    public CDuplicatedUidException(String message, Throwable t) {
+        super(message, t);
+    }
+
+    public CDuplicatedUidException(String message) {
+        super(message);
+    }
+
+    public CDuplicatedUidException() {
+        super();
+    }
+}
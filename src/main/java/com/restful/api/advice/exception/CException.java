@@ -0,0 +1,23 @@
+package com.restful.api.advice.exception;
+
+/*
+ * 커스텀 예외(CXxxException)의 상위 클래스
+ * 예외는 ExceptionAdvice에서 실패 응답(code, message)으로 바뀌고 스택 트레이스는 쓰이지 않으므로 만들지 않는다. (fillInStackTrace 생략)
+ * suppressed 예외도 기록하지 않으므로 상태가 바뀌지 않고, 인자 없는 예외는 INSTANCE 하나를 모든 요청이 함께 던질 수 있다.
+ * 원인(cause)을 넘기면 원인의 스택 트레이스는 그대로 남는다.
+ */
+
+public abstract class CException extends RuntimeException {
+
+    protected CException(String message, Throwable t) {
+        super(message, t, false, false);
+    }
+
+    protected CException(String message) {
+        super(message, null, false, false);
+    }
+
+    protected CException() {
+        super(null, null, false, false);
+    }
+}
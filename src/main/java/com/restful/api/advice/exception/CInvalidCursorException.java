@@ -0,0 +1,18 @@
+package com.restful.api.advice.exception;
+
+public class CInvalidCursorException extends CException {
+
+    public static final CInvalidCursorException INSTANCE = new CInvalidCursorException();
+
+    public CInvalidCursorException(String message, Throwable t) {
+        super(message, t);
+    }
+
+    public CInvalidCursorException(String message) {
+        super(message);
+    }
+
+    public CInvalidCursorException() {
+        super();
+    }
+}
@@ -0,0 +1,18 @@
+package com.restful.api.advice.exception;
+
+public class CInvalidTokenException extends CException {
+
+    public static final CInvalidTokenException INSTANCE = new CInvalidTokenException();
+
+    public CInvalidTokenException(String message, Throwable t) {
+        super(message, t);
+    }
+
+    public CInvalidTokenException(String message) {
+        super(message);
+    }
+
+    public CInvalidTokenException() {
+        super();
+    }
+}
@@ -0,0 +1,16 @@
+package com.restful.api.advice.exception;
+
+public class CServiceBusyException extends CException {
+
+    public CServiceBusyException(String message, Throwable t) {
+        super(message, t);
+    }
+
+    public CServiceBusyException(String message) {
+        super(message);
+    }
+
+    public CServiceBusyException() {
+        super();
+    }
+}
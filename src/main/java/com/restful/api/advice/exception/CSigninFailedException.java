@@ -0,0 +1,18 @@
+package com.restful.api.advice.exception;
+
+public class CSigninFailedException extends CException {
+
+    public static final CSigninFailedException INSTANCE = new CSigninFailedException();
+
+    public CSigninFailedException(String message, Throwable t) {
+        super(message, t);
+    }
+
+    public CSigninFailedException(String message) {
+        super(message);
+    }
+
+    public CSigninFailedException() {
+        super();
+    }
+}
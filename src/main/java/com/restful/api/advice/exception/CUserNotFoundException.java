@@ -1,6 +1,8 @@
 package com.restful.api.advice.exception;
 
-public class CUserNotFoundException extends RuntimeException {
+public class CUserNotFoundException extends CException {
+
+    public static final CUserNotFoundException INSTANCE = new CUserNotFoundException();
 
     public CUserNotFoundException(String message, Throwable t) {
         super(message, t);
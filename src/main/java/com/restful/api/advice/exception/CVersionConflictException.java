@@ -0,0 +1,18 @@
+package com.restful.api.advice.exception;
+
+public class CVersionConflictException extends CException {
+
+    public static final CVersionConflictException INSTANCE = new CVersionConflictException();
+
+    public CVersionConflictException(String message, Throwable t) {
+        super(message, t);
+    }
+
+    public CVersionConflictException(String message) {
+        super(message);
+    }
+
+    public CVersionConflictException() {
+        super();
+    }
+}
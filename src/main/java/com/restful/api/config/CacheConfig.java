@@ -0,0 +1,19 @@
+package com.restful.api.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * 캐시 설정
+ * @EnableCaching을 선언하면 스프링 부트가 spring.cache.* 설정으로 CacheManager를 만들어준다.
+ * 기본 저장소는 프로세스 내부의 Caffeine이며, spring.cache.type만 바꾸면 (ex. redis, jcache) 다른 저장소로 교체할 수 있다.
+ * Caffeine spec에 recordStats를 주면 actuator가 캐시별 hit/miss/eviction 지표를 자동으로 등록한다. (/actuator/metrics/cache.gets 등)
+ */
+
+@EnableCaching
+@Configuration
+public class CacheConfig {
+
+    public static final String USERS_BY_ID = "usersById"; // id -> User
+    public static final String USERS_BY_UID = "usersByUid"; // uid -> id
+}
@@ -0,0 +1,212 @@
+package com.restful.api.config;
+
+import com.restful.api.response.CommonResponse;
+import com.restful.api.response.FailureTemplate;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/*
+ * 메시지 yml 파일(i18n/exception_*.yml)을 시작할 때 한 번만 읽어서 로케일별 불변 Map으로 만들어 두는 MessageSource
+ * ResourceBundleMessageSource는 조회할 때마다 번들 캐시를 동기화하고 MessageFormat을 다시 파싱하지만,
+ * 여기서는 인자 없는 메시지를 미리 포맷해 두므로 조회는 Map 조회 한 번으로 끝나고 락을 잡지 않는다.
+ * 예외 응답에 쓰이는 xxx.code / xxx.message 쌍은 숫자로 변환한 FailureTemplate으로 미리 만들어 둔다.
+ * reload()를 호출하면 파일을 다시 읽어 새 스냅샷을 만든 뒤 한 번에 교체하므로, 조회 중인 요청은 이전 스냅샷을 그대로 본다.
+ */
+
+public class CompiledMessageSource implements MessageSource {
+
+    private static final String CODE_SUFFIX = ".code";
+    private static final String MESSAGE_SUFFIX = ".message";
+    private static final FailureTemplate FAIL = new FailureTemplate(CommonResponse.FAIL.getCode(), CommonResponse.FAIL.getMessage());
+
+    private final String basename;
+    private final Locale defaultLocale;
+    private volatile Snapshot snapshot;
+
+    public CompiledMessageSource(String basename, Locale defaultLocale) {
+        this.basename = basename;
+        this.defaultLocale = defaultLocale;
+        reload();
+    }
+
+    // 메시지 파일을 다시 읽어 스냅샷을 통째로 교체한다.
+    public void reload() {
+        this.snapshot = Snapshot.load(basename, defaultLocale);
+    }
+
+    // key(ex. userNotFound)에 해당하는 실패 응답 템플릿, 없으면 unKnown 템플릿을 반환한다.
+    public FailureTemplate getFailure(String key, Locale locale) {
+        LocaleMessages messages = snapshot.forLocale(locale);
+        FailureTemplate failure = messages.failures.get(key);
+        if (failure == null) {
+            failure = messages.failures.getOrDefault("unKnown", FAIL);
+        }
+        return failure;
+    }
+
+    @Override
+    public String getMessage(String code, Object[] args, String defaultMessage, Locale locale) {
+        String message = resolve(code, args, locale);
+        if (message != null) {
+            return message;
+        }
+        if (defaultMessage != null) {
+            return format(defaultMessage, args, locale);
+        }
+        return code; // useCodeAsDefaultMessage
+    }
+
+    @Override
+    public String getMessage(String code, Object[] args, Locale locale) {
+        return getMessage(code, args, null, locale);
+    }
+
+    @Override
+    public String getMessage(MessageSourceResolvable resolvable, Locale locale) {
+        String[] codes = resolvable.getCodes();
+        if (codes != null) {
+            for (String code : codes) {
+                String message = resolve(code, resolvable.getArguments(), locale);
+                if (message != null) {
+                    return message;
+                }
+            }
+        }
+        if (resolvable.getDefaultMessage() != null) {
+            return format(resolvable.getDefaultMessage(), resolvable.getArguments(), locale);
+        }
+        return codes != null && codes.length > 0 ? codes[codes.length - 1] : null;
+    }
+
+    private String resolve(String code, Object[] args, Locale locale) {
+        LocaleMessages messages = snapshot.forLocale(locale);
+        if (args == null || args.length == 0) {
+            return messages.formatted.get(code);
+        }
+        String pattern = messages.raw.get(code);
+        return pattern == null ? null : format(pattern, args, locale);
+    }
+
+    private static String format(String pattern, Object[] args, Locale locale) {
+        return new MessageFormat(pattern, locale).format(args == null ? new Object[0] : args);
+    }
+
+    // 한 로케일의 메시지 : 원본 패턴, 인자 없이 포맷된 메시지, 실패 응답 템플릿
+    private static class LocaleMessages {
+        private final Map<String, String> raw;
+        private final Map<String, String> formatted;
+        private final Map<String, FailureTemplate> failures;
+
+        LocaleMessages(Map<String, String> raw, Locale locale) {
+            Map<String, String> formatted = new HashMap<>();
+            raw.forEach((code, pattern) -> formatted.put(code, format(pattern, null, locale)));
+
+            Map<String, FailureTemplate> failures = new HashMap<>();
+            raw.keySet().stream()
+                    .filter(code -> code.endsWith(CODE_SUFFIX))
+                    .map(code -> code.substring(0, code.length() - CODE_SUFFIX.length()))
+                    .filter(key -> formatted.containsKey(key + MESSAGE_SUFFIX))
+                    .forEach(key -> failures.put(key, new FailureTemplate(
+                            Integer.parseInt(raw.get(key + CODE_SUFFIX).trim()),
+                            formatted.get(key + MESSAGE_SUFFIX))));
+
+            this.raw = Collections.unmodifiableMap(raw);
+            this.formatted = Collections.unmodifiableMap(formatted);
+            this.failures = Collections.unmodifiableMap(failures);
+        }
+    }
+
+    // 전체 로케일의 메시지, 한 번 만들어지면 바뀌지 않는다.
+    // 파일이 없는 로케일(ex. ko_KR, fr)은 언어 -> 기본 로케일 순으로 찾는다.
+    // 클라이언트가 보낸 로케일은 종류가 제한이 없으므로 찾은 결과를 로케일별로 기억하지 않는다.
+    private static class Snapshot {
+        private final Map<Locale, LocaleMessages> byLocale;
+        private final Map<String, LocaleMessages> byLanguage; // 국가가 없는 파일만
+        private final LocaleMessages fallback;
+
+        private Snapshot(Map<Locale, LocaleMessages> byLocale, LocaleMessages fallback) {
+            this.byLocale = byLocale;
+            this.fallback = fallback;
+            Map<String, LocaleMessages> byLanguage = new HashMap<>();
+            byLocale.forEach((locale, messages) -> {
+                if (locale.getCountry().isEmpty() && !locale.getLanguage().isEmpty()) {
+                    byLanguage.put(locale.getLanguage(), messages);
+                }
+            });
+            this.byLanguage = Collections.unmodifiableMap(byLanguage);
+        }
+
+        LocaleMessages forLocale(Locale locale) {
+            LocaleMessages messages = byLocale.get(locale);
+            if (messages != null) {
+                return messages;
+            }
+            return byLanguage.getOrDefault(locale.getLanguage(), fallback);
+        }
+
+        // basename.yml, basename_ko.yml, basename_en.yml ... 을 모두 읽는다.
+        static Snapshot load(String basename, Locale defaultLocale) {
+            try {
+                Resource[] resources = new PathMatchingResourcePatternResolver()
+                        .getResources("classpath*:" + basename + "*.yml");
+                String name = StringUtils.getFilename(basename);
+
+                Map<Locale, Map<String, String>> files = new HashMap<>();
+                for (Resource resource : resources) {
+                    String filename = StringUtils.stripFilenameExtension(resource.getFilename());
+                    if (filename.equals(name)) {
+                        files.put(Locale.ROOT, read(resource));
+                    } else if (filename.startsWith(name + "_")) {
+                        String tag = filename.substring(name.length() + 1).replace('_', '-');
+                        files.put(Locale.forLanguageTag(tag), read(resource));
+                    }
+                }
+
+                // ResourceBundle과 같이 기본 파일 -> 언어 -> 언어_국가 순으로 덮어쓴다.
+                Map<String, String> root = files.getOrDefault(Locale.ROOT, Collections.emptyMap());
+                Map<Locale, LocaleMessages> byLocale = new HashMap<>();
+                for (Map.Entry<Locale, Map<String, String>> file : files.entrySet()) {
+                    Locale locale = file.getKey();
+                    Map<String, String> merged = new HashMap<>(root);
+                    if (!locale.getCountry().isEmpty()) {
+                        merged.putAll(files.getOrDefault(new Locale(locale.getLanguage()), Collections.emptyMap()));
+                    }
+                    merged.putAll(file.getValue());
+                    byLocale.put(locale, new LocaleMessages(merged, locale));
+                }
+
+                LocaleMessages fallback = byLocale.get(defaultLocale);
+                if (fallback == null) {
+                    fallback = new LocaleMessages(new HashMap<>(root), defaultLocale);
+                }
+                return new Snapshot(Collections.unmodifiableMap(byLocale), fallback);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static Map<String, String> read(Resource resource) {
+            YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+            yaml.setResources(resource);
+            Properties properties = yaml.getObject();
+            Map<String, String> messages = new HashMap<>();
+            if (properties != null) {
+                properties.stringPropertyNames().forEach(key -> messages.put(key, properties.getProperty(key)));
+            }
+            return messages;
+        }
+    }
+}
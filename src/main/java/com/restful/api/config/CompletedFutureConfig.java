@@ -0,0 +1,31 @@
+package com.restful.api.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 완료된 CompletableFuture를 비동기 처리 없이 응답하도록 CompletedFutureReturnValueHandler를 등록한다.
+ * WebMvcConfigurer.addReturnValueHandlers로 추가한 핸들러는 기본 핸들러(CompletableFuture -> DeferredResult) 뒤에 오므로,
+ * 어댑터가 기본 핸들러를 만든 뒤 맨 앞에 넣는다.
+ */
+
+@Configuration
+public class CompletedFutureConfig {
+
+    @Bean
+    public SmartInitializingSingleton completedFutureReturnValueHandlerRegistrar(RequestMappingHandlerAdapter adapter) {
+        return () -> {
+            List<HandlerMethodReturnValueHandler> defaults = adapter.getReturnValueHandlers();
+            List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(defaults.size() + 1);
+            handlers.add(new CompletedFutureReturnValueHandler(defaults));
+            handlers.addAll(defaults);
+            adapter.setReturnValueHandlers(handlers);
+        };
+    }
+}
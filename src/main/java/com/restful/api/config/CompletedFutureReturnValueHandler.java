@@ -0,0 +1,88 @@
+package com.restful.api.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/*
+ * 이미 완료된 CompletableFuture를 반환한 핸들러의 결과를 바로 응답한다.
+ * 스프링 MVC는 CompletableFuture를 완료 여부와 관계없이 DeferredResult로 처리하므로, 요청마다 startAsync 후
+ * 필터 체인(시큐리티, 요청 수 제한, 지표) 전체를 ASYNC로 다시 디스패치한다.
+ * RequestExecutor의 sync 모드는 톰캣 스레드에서 바로 실행해 완료된 future를 반환하므로, 그 결과를 꺼내
+ * 메서드가 결과를 직접 반환한 것처럼 나머지 핸들러(ResponseEntity, @ResponseBody 등)에 넘긴다.
+ * 완료되지 않았거나 예외로 완료된 future는 기존대로 비동기로 처리한다. (async 모드)
+ * 등록은 CompletedFutureConfig에서 기본 핸들러보다 앞에 한다.
+ */
+
+public class CompletedFutureReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    private final HandlerMethodReturnValueHandlerComposite delegate;
+
+    public CompletedFutureReturnValueHandler(List<HandlerMethodReturnValueHandler> handlers) {
+        this.delegate = new HandlerMethodReturnValueHandlerComposite().addHandlers(handlers);
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return CompletableFuture.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        CompletableFuture<?> future = (CompletableFuture<?>) returnValue;
+        if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+            Object result = future.join();
+            delegate.handleReturnValue(result, new CompletedResultParameter(returnType, result), mavContainer, webRequest);
+        } else {
+            delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+        }
+    }
+
+    // 반환 타입을 CompletableFuture<T>의 T(결과가 있으면 결과의 클래스)로 보이게 한다. (ASYNC 재디스패치에서 스프링이 하는 것과 같다)
+    private static class CompletedResultParameter extends MethodParameter {
+
+        private final Object result;
+        private final ResolvableType resultType;
+
+        CompletedResultParameter(MethodParameter returnType, Object result) {
+            super(returnType);
+            this.result = result;
+            this.resultType = ResolvableType.forType(returnType.getGenericParameterType()).as(CompletableFuture.class).getGeneric();
+        }
+
+        private CompletedResultParameter(CompletedResultParameter original) {
+            super(original);
+            this.result = original.result;
+            this.resultType = original.resultType;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            if (result != null) {
+                return result.getClass();
+            }
+            if (resultType != ResolvableType.NONE) {
+                return resultType.toClass();
+            }
+            return Object.class;
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return resultType != ResolvableType.NONE ? resultType.getType() : getParameterType();
+        }
+
+        @Override
+        public CompletedResultParameter clone() {
+            return new CompletedResultParameter(this);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.restful.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * 스프링 데이터 Repository 메서드 실행 시간을 repository.invocations 타이머에 기록한다.
+ * 태그 : repository(ex. UserRepository), method(ex. findById), exception(없으면 none)
+ * JpaRepository에서 상속받은 메서드(findById, save 등)도 Repository 프록시를 거치므로 함께 측정된다.
+ */
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    // 프록시 클래스 -> Repository 인터페이스 이름
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            sample.stop(Timer.builder("repository.invocations")
+                    .tag("repository", repositoryName(joinPoint.getThis()))
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), proxyClass -> {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(proxy);
+            return interfaces.length > 0 ? interfaces[0].getSimpleName() : proxyClass.getSimpleName();
+        });
+    }
+}
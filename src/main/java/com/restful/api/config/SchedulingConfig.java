@@ -0,0 +1,14 @@
+package com.restful.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/*
+ * 주기 작업(@Scheduled) 설정
+ * ex) uid 필터 재생성 (UserUidFilter)
+ */
+
+@EnableScheduling
+@Configuration
+public class SchedulingConfig {
+}
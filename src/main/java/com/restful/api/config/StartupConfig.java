@@ -0,0 +1,42 @@
+package com.restful.api.config;
+
+import com.restful.api.config.datasource.ReplicaLagMonitor;
+import com.restful.api.config.security.JwtRevocationList;
+import com.restful.api.service.UserChangeFeed;
+import com.restful.api.service.UserSearchIndex;
+import com.restful.api.service.UserUidFilter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.servlet.Filter;
+
+/*
+ * 시작 시간 관련 설정 (application-fast.yml)
+ * fast 프로필은 spring.main.lazy-initialization으로 빈을 처음 사용할 때 만든다.
+ * 다만 아래 빈은 처음부터 만들어 둔다.
+ * - 필터 : 첫 요청이 시큐리티 필터 체인을 만드느라 늦어지지 않도록 한다.
+ * - 시작 시 데이터를 읽어 두거나 이벤트를 처음부터 받아야 하는 빈 : uid 필터, 검색 색인, 변경 피드, 폐기된 토큰 목록(다른 노드의 폐기 구독)
+ * - 주입받는 곳이 없는 주기 작업 : replica 지연 확인 (만들지 않으면 replica를 사용하지 않는다)
+ */
+
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(Filter.class, UserUidFilter.class, UserSearchIndex.class,
+                UserChangeFeed.class, JwtRevocationList.class, ReplicaLagMonitor.class);
+    }
+
+    // 시작이 끝나면 바로 종료한다. AppCDS 아카이브를 만들 때 시작 과정에서 읽는 클래스만 기록하기 위해 사용한다. (build.gradle cdsArchive)
+    @Bean
+    @ConditionalOnProperty(name = "spring.startup.exit-after-ready", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> exitAfterReady() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.restful.api.config;
+
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.LocaleResolver;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/*
+ * 세션을 사용하지 않는 LocaleResolver
+ * lang 파라미터 -> Accept-Language 헤더 -> 기본 로케일 순으로 요청마다 로케일을 결정한다.
+ * SessionLocaleResolver는 로케일을 저장하기 위해 세션을 만드는데, JWT 클라이언트는 세션을 재사용하지 않으므로 버려진 세션만 쌓인다.
+ * 같은 값이 반복해서 들어오므로 파싱한 Locale은 캐시하고, 외부 입력으로 캐시가 무한히 커지지 않도록 개수를 제한한다.
+ */
+
+public class StatelessLocaleResolver implements LocaleResolver {
+
+    private static final int MAX_CACHED = 256;
+
+    private final String paramName;
+    private final Locale defaultLocale;
+    private final ConcurrentMap<String, Locale> paramLocales = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Locale> headerLocales = new ConcurrentHashMap<>();
+
+    public StatelessLocaleResolver(String paramName, Locale defaultLocale) {
+        this.paramName = paramName;
+        this.defaultLocale = defaultLocale;
+    }
+
+    @Override
+    public Locale resolveLocale(HttpServletRequest request) {
+        String lang = request.getParameter(paramName);
+        if (StringUtils.hasText(lang)) {
+            return lookup(paramLocales, lang, StatelessLocaleResolver::parseParam);
+        }
+        String acceptLanguage = request.getHeader("Accept-Language");
+        if (StringUtils.hasText(acceptLanguage)) {
+            return lookup(headerLocales, acceptLanguage, StatelessLocaleResolver::parseHeader);
+        }
+        return defaultLocale;
+    }
+
+    // 로케일은 요청마다 결정되므로 저장할 곳이 없다. (AcceptHeaderLocaleResolver와 같다)
+    @Override
+    public void setLocale(HttpServletRequest request, HttpServletResponse response, Locale locale) {
+        throw new UnsupportedOperationException("Locale is resolved per request from the '" + paramName
+                + "' parameter or the Accept-Language header");
+    }
+
+    private Locale lookup(ConcurrentMap<String, Locale> cache, String value, Function<String, Locale> parser) {
+        Locale locale = cache.get(value);
+        if (locale != null) {
+            return locale;
+        }
+        locale = parser.apply(value);
+        if (locale == null) {
+            locale = defaultLocale;
+        }
+        if (cache.size() < MAX_CACHED) {
+            cache.putIfAbsent(value, locale);
+        }
+        return locale;
+    }
+
+    // ko, en, en_US, en-US
+    private static Locale parseParam(String lang) {
+        try {
+            Locale locale = StringUtils.parseLocale(lang);
+            return locale == null || locale.getLanguage().isEmpty() ? null : locale;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // en-US,en;q=0.9,ko;q=0.8 => 가중치가 가장 높은 언어
+    private static Locale parseHeader(String acceptLanguage) {
+        try {
+            List<Locale.LanguageRange> ranges = Locale.LanguageRange.parse(acceptLanguage);
+            for (Locale.LanguageRange range : ranges) {
+                if (!"*".equals(range.getRange())) {
+                    return Locale.forLanguageTag(range.getRange());
+                }
+            }
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.restful.api.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import springfox.documentation.builders.ApiInfoBuilder;
@@ -10,13 +11,17 @@ import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+import java.util.concurrent.CompletableFuture;
+
 /*
  * Swagger
  * 문서 자동화 툴로, 간단한 설정만으로 테스트 가능한 Web UI를 지원하므로 API 테스트를 위한 부가적인 프로그램을 설치할 필요가 없다.
  * 최소한의 작업으로 API Document를 만들어주므로, 클라이언트 개발자에게 문서 내용을 전달하기 위해 추가 작업을 할 필요가 없다.
+ * 시작할 때 컨트롤러를 모두 훑어서 문서를 만드므로, 시작 시간이 중요한 노드에서는 spring.swagger.enabled=false로 끈다. (fast 프로필)
  */
 
 @Configuration
+@ConditionalOnProperty(name = "spring.swagger.enabled", havingValue = "true", matchIfMissing = true)
 @EnableSwagger2
 public class SwaggerConfig {
     @Bean
@@ -26,6 +31,7 @@ public class SwaggerConfig {
                 .apis(RequestHandlerSelectors.basePackage("com.restful.api.controller"))
                 .paths(PathSelectors.any()) // PathSelectors.ant("/v1/**") 이런식으로 문서화 할 리소스들을 필터링 할 수 있다.
                 .build()
+                .genericModelSubstitutes(CompletableFuture.class) // CompletableFuture<T>는 T로 문서화
                 .useDefaultResponseMessages(false); // 기본으로 세팅되는 200,401,403,404 메시지를 표시 하지 않음
     }
 
@@ -0,0 +1,35 @@
+package com.restful.api.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/*
+ * 응답 형식(wire format) 설정
+ * Accept 헤더에 따라 JSON 외에 바이너리 형식으로도 응답한다.
+ * - application/cbor : CBOR
+ * - application/x-jackson-smile : Smile
+ * 스프링 부트가 설정한 Jackson2ObjectMapperBuilder로 만들기 때문에 날짜 형식 등 JSON 응답과 같은 설정을 사용한다.
+ *
+ * 응답 압축은 server.compression.* 설정으로 톰캣이 처리한다. (application.yml)
+ * 톰캣은 강한(strong) ETag가 있는 응답은 압축하지 않으므로, 압축할 만큼 큰 목록 응답은 약한(weak) ETag를 사용한다.
+ * 강한 ETag를 쓰는 단건 응답은 형식마다 다른 값을 사용한다. (UserVersion, ConditionalRequest.formatSuffix)
+ */
+
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,92 @@
+package com.restful.api.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 읽기/쓰기 분리 설정 (spring.datasource.routing.enabled=true 일 때만)
+ * JPA 등이 사용하는 DataSource(@Primary)를 LazyConnectionDataSourceProxy -> ReplicaRoutingDataSource -> primary/replica 커넥션 풀 순서로 만든다.
+ * 설정하지 않으면 스프링 부트가 만드는 DataSource 하나를 그대로 사용한다.
+ */
+
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class DataSourceConfig {
+
+    // primary 커넥션 풀, 스프링 부트 기본 DataSource와 같은 설정(spring.datasource.*, spring.datasource.hikari.*)으로 만든다.
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, ReplicaRoutingProperties properties,
+                                                             RecentWrites recentWrites, MeterRegistry meterRegistry) {
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaRoutingProperties.Node node = properties.getReplicas().get(i);
+            String name = node.getName() != null ? node.getName() : "replica-" + i;
+            replicas.add(new Replica(name, replicaPool(primaryDataSource, node, name, properties.getMaximumPoolSize(), meterRegistry)));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getMaxLagMs(), recentWrites, meterRegistry);
+    }
+
+    // 트랜잭션이 시작된 뒤 첫 SQL을 실행할 때 커넥션을 가져오므로, 그때는 readOnly 여부가 정해져 있다.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaRoutingDataSource.getReplicas());
+    }
+
+    // 하이버네이트는 기본적으로 세션이 끝날 때까지 커넥션을 들고 있으므로(open-in-view 등),
+    // 트랜잭션마다 커넥션을 반환해야 다음 트랜잭션이 readOnly 여부에 맞는 커넥션을 새로 가져온다.
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    private static HikariDataSource replicaPool(HikariDataSource primary, ReplicaRoutingProperties.Node node, String name,
+                                                int maximumPoolSize, MeterRegistry meterRegistry) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(node.getUrl());
+        if (primary.getDriverClassName() != null) {
+            pool.setDriverClassName(primary.getDriverClassName());
+        }
+        pool.setUsername(node.getUsername() != null ? node.getUsername() : primary.getUsername());
+        pool.setPassword(node.getUsername() != null ? node.getPassword() : primary.getPassword());
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setMinimumIdle(Math.min(primary.getMinimumIdle(), maximumPoolSize));
+        pool.setConnectionTimeout(primary.getConnectionTimeout());
+        pool.setIdleTimeout(primary.getIdleTimeout());
+        pool.setMaxLifetime(primary.getMaxLifetime());
+        pool.setDataSourceProperties(primary.getDataSourceProperties());
+        pool.setReadOnly(true);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry)); // hikaricp.* 지표 (pool 태그 = name)
+        return pool;
+    }
+}
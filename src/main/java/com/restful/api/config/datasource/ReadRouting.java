@@ -0,0 +1,69 @@
+package com.restful.api.config.datasource;
+
+import java.util.function.Supplier;
+
+/*
+ * 현재 스레드의 읽기 라우팅 정보 (ReplicaRoutingDataSource에서 사용)
+ * client : 요청한 클라이언트 (ReadRoutingFilter에서 세팅), 이 클라이언트가 최근에 쓴 경우 읽기도 primary로 보낸다.
+ * primary : onPrimary 안에서 가져오는 커넥션은 읽기 전용 트랜잭션이라도 primary를 사용한다.
+ * async 모드에서는 DB 작업이 다른 스레드에서 실행되므로 RequestExecutor가 propagate로 client를 넘겨준다.
+ */
+
+public final class ReadRouting {
+
+    private static final ThreadLocal<String> CLIENT = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static String currentClient() {
+        return CLIENT.get();
+    }
+
+    public static void bindClient(String client) {
+        CLIENT.set(client);
+    }
+
+    public static void unbindClient() {
+        CLIENT.remove();
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY.get() != null;
+    }
+
+    // work 안에서 새로 시작하는 트랜잭션은 primary에서 읽는다. (이미 커넥션을 가진 트랜잭션 안에서는 효과가 없다)
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (PRIMARY.get() != null) {
+            return work.get();
+        }
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY.remove();
+        }
+    }
+
+    // 현재 스레드의 client를 work를 실행하는 스레드에서도 사용하도록 감싼다.
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        String client = CLIENT.get();
+        if (client == null) {
+            return work;
+        }
+        return () -> {
+            String previous = CLIENT.get();
+            CLIENT.set(client);
+            try {
+                return work.get();
+            } finally {
+                if (previous == null) {
+                    CLIENT.remove();
+                } else {
+                    CLIENT.set(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.restful.api.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 최근 쓰기 기록 (read-your-writes)
+ * 클라이언트("user:1", "ip:..."), 회원("id:1", "uid:...")별로 마지막 쓰기 이후 일정 시간 동안은 replica 대신 primary에서 읽게 한다.
+ * 유지 시간은 replica를 사용할 수 있는 최대 지연(max-lag-ms)에 heartbeat 두 번의 시간을 더한 값이다.
+ * 지연이 이보다 큰 replica는 읽기에 사용하지 않으므로, 유지 시간이 지나면 어느 replica에서 읽어도 쓴 값이 보인다.
+ * 노드마다 따로 기록하므로, 다른 노드에서 쓴 내용은 회원 캐시와 마찬가지로 최대 지연만큼 늦게 보일 수 있다.
+ * replica 라우팅(spring.datasource.routing.enabled)을 사용하지 않으면 기록하지 않는다.
+ */
+
+@Component
+public class RecentWrites implements MeterBinder {
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final Map<String, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    public RecentWrites(@Value("${spring.datasource.routing.enabled:false}") boolean enabled,
+                        @Value("${spring.datasource.routing.max-lag-ms:1000}") long maxLagMillis,
+                        @Value("${spring.datasource.routing.heartbeat-interval-ms:500}") long heartbeatIntervalMillis) {
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(maxLagMillis + 2 * heartbeatIntervalMillis);
+    }
+
+    public void wrote(String key) {
+        wrote(key, System.nanoTime());
+    }
+
+    public boolean isRecent(String key) {
+        return isRecent(key, System.nanoTime());
+    }
+
+    void wrote(String key, long now) {
+        if (enabled && key != null) {
+            primaryUntil.put(key, now + windowNanos);
+        }
+    }
+
+    boolean isRecent(String key, long now) {
+        if (!enabled || key == null) {
+            return false;
+        }
+        Long until = primaryUntil.get(key);
+        return until != null && until - now > 0;
+    }
+
+    // 유지 시간이 지난 기록을 제거한다.
+    @Scheduled(fixedDelayString = "${spring.datasource.routing.sweep-interval-ms:10000}")
+    public void evictExpired() {
+        evictExpired(System.nanoTime());
+    }
+
+    void evictExpired(long now) {
+        primaryUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("datasource.routing.recent.writes", primaryUntil, Map::size)
+                .description("primary에서 읽도록 기록된 클라이언트, 회원 수")
+                .register(registry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.restful.api.config.datasource;
+
+import javax.sql.DataSource;
+
+// 읽기 전용 replica 하나, 지연 시간은 ReplicaLagMonitor가 주기적으로 갱신한다.
+final class Replica {
+
+    static final long UNKNOWN_LAG = Long.MAX_VALUE; // 확인 전이거나 접속할 수 없는 경우
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile long lagMillis = UNKNOWN_LAG;
+
+    Replica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    DataSource getDataSource() {
+        return dataSource;
+    }
+
+    long getLagMillis() {
+        return lagMillis;
+    }
+
+    void setLagMillis(long lagMillis) {
+        this.lagMillis = lagMillis;
+    }
+}
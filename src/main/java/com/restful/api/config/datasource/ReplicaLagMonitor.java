@@ -0,0 +1,104 @@
+package com.restful.api.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/*
+ * replica 지연 시간 확인 (heartbeat)
+ * 주기마다 primary의 replica_heartbeat 테이블에 현재 시각을 쓰고, 복제된 값을 replica에서 읽어 지연 시간을 계산한다.
+ * replica가 이전 주기에 쓴 값(또는 그 이후 값)을 가지고 있으면 따라잡은 것으로 보고 0, 아니면 가지고 있는 값이 쓰인 뒤로 지난 시간이다.
+ * 여러 노드가 같은 행을 갱신해도 값이 더 최근이 될 뿐이므로 문제없다.
+ * replica에 접속할 수 없거나 primary에 쓰지 못하면 지연 시간을 알 수 없는 것으로 보고, 해당 replica는 읽기에 사용하지 않는다.
+ * 테이블이 없으면 처음 한 번 만든다. 권한이 없으면 아래 DDL(CREATE_TABLE)로 미리 만들어 둔다.
+ */
+
+@Slf4j
+public class ReplicaLagMonitor implements MeterBinder {
+
+    private static final String CREATE_TABLE = "create table if not exists replica_heartbeat (id int primary key, beat_at bigint not null)";
+
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas;
+    private long lastBeat = -1; // 마지막으로 primary에 쓴 값, 스케줄러 스레드에서만 사용한다.
+    private boolean tableCreated;
+
+    public ReplicaLagMonitor(DataSource primary, List<Replica> replicas) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = replicas;
+    }
+
+    @Scheduled(fixedDelayString = "${spring.datasource.routing.heartbeat-interval-ms:500}")
+    public void beat() {
+        beat(System.currentTimeMillis());
+    }
+
+    // replica를 먼저 확인한 뒤 다음 주기에 확인할 값을 쓴다.
+    void beat(long now) {
+        for (Replica replica : replicas) {
+            replica.setLagMillis(lagOf(replica, now));
+        }
+        lastBeat = writeBeat(now) ? now : -1;
+    }
+
+    private long lagOf(Replica replica, long now) {
+        if (lastBeat < 0) {
+            return Replica.UNKNOWN_LAG;
+        }
+        try {
+            Long beatAt = new JdbcTemplate(replica.getDataSource())
+                    .queryForObject("select beat_at from replica_heartbeat where id = 1", Long.class);
+            if (beatAt == null) {
+                return Replica.UNKNOWN_LAG;
+            }
+            return beatAt >= lastBeat ? 0 : Math.max(0, now - beatAt);
+        } catch (DataAccessException e) {
+            log.debug("Failed to read heartbeat from replica {}", replica.getName(), e);
+            return Replica.UNKNOWN_LAG;
+        }
+    }
+
+    private boolean writeBeat(long now) {
+        try {
+            upsert(now);
+            return true;
+        } catch (DataAccessException e) {
+            if (!tableCreated) {
+                tableCreated = true;
+                try {
+                    primary.execute(CREATE_TABLE);
+                    upsert(now);
+                    return true;
+                } catch (DataAccessException createFailure) {
+                    e.addSuppressed(createFailure);
+                }
+            }
+            log.warn("Failed to write replica heartbeat, reading from primary until it succeeds", e);
+            return false;
+        }
+    }
+
+    private void upsert(long now) {
+        if (primary.update("update replica_heartbeat set beat_at = ? where id = 1", now) == 0) {
+            primary.update("insert into replica_heartbeat (id, beat_at) values (1, ?)", now);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.getLagMillis() == Replica.UNKNOWN_LAG ? Double.NaN : r.getLagMillis())
+                    .description("replica 복제 지연 시간(ms), 확인할 수 없으면 NaN")
+                    .tag("replica", replica.getName())
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.restful.api.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * 읽기/쓰기 분리 DataSource
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))의 커넥션은 replica에서, 그 외(쓰기 트랜잭션, 트랜잭션 밖)는 primary에서 가져온다.
+ * 트랜잭션의 readOnly 여부는 트랜잭션을 시작한 뒤에 정해지므로, LazyConnectionDataSourceProxy로 감싸서 첫 SQL을 실행할 때 커넥션을 가져온다.
+ *
+ * replica는 지연 시간(ReplicaLagMonitor)이 max-lag-ms 이하인 것만 돌아가며(round-robin) 사용한다.
+ * 다음의 경우에는 읽기도 primary에서 한다.
+ * 1. 현재 클라이언트가 최근에 쓴 경우 (RecentWrites), 쓰기 트랜잭션이 커밋되면 클라이언트를 기록한다.
+ * 2. ReadRouting.onPrimary 안에서 시작한 트랜잭션 (ex. 최근 변경된 회원 조회)
+ * 3. 사용할 수 있는 replica가 없거나 커넥션을 가져오지 못한 경우
+ */
+
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final RecentWrites recentWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter writeCounter;
+    private final Counter replicaCounter;
+    private final Counter readYourWritesCounter;
+    private final Counter fallbackCounter;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, long maxLagMillis,
+                                    RecentWrites recentWrites, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLagMillis = maxLagMillis;
+        this.recentWrites = recentWrites;
+        this.writeCounter = counter(meterRegistry, "primary", "write");
+        this.replicaCounter = counter(meterRegistry, "replica", "read");
+        this.readYourWritesCounter = counter(meterRegistry, "primary", "read_your_writes");
+        this.fallbackCounter = counter(meterRegistry, "primary", "replica_unavailable");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriter();
+            writeCounter.increment();
+            return primary.getConnection();
+        }
+        if (ReadRouting.isPrimaryRequired() || recentWrites.isRecent(ReadRouting.currentClient())) {
+            readYourWritesCounter.increment();
+            return primary.getConnection();
+        }
+        Replica replica = nextReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                replicaCounter.increment();
+                return connection;
+            } catch (SQLException e) {
+                // 다음 heartbeat에서 다시 확인할 때까지 사용하지 않는다.
+                replica.setLagMillis(Replica.UNKNOWN_LAG);
+                log.warn("Failed to get a connection from replica {}, reading from primary", replica.getName(), e);
+            }
+        }
+        fallbackCounter.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Routing data source does not support per-call credentials");
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    // 지연 시간이 max-lag-ms 이하인 replica를 차례로 고른다. 없으면 null
+    private Replica nextReplica() {
+        int size = replicas.size();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, size));
+            if (replica.getLagMillis() <= maxLagMillis) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // 쓰기 트랜잭션이 커밋되면 클라이언트의 다음 읽기를 primary로 보낸다.
+    private void rememberWriter() {
+        String client = ReadRouting.currentClient();
+        if (client == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWrites.wrote(client);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof Closeable) {
+                try {
+                    ((Closeable) replica.getDataSource()).close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica {}", replica.getName(), e);
+                }
+            }
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing.connections")
+                .description("읽기/쓰기 분리로 가져온 커넥션 수")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
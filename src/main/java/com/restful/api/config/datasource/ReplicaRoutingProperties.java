@@ -0,0 +1,41 @@
+package com.restful.api.config.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 읽기/쓰기 분리 설정 (spring.datasource.routing.*)
+ * primary는 기존 spring.datasource 설정을 그대로 사용하고, replica는 접속 정보만 따로 준다.
+ * replica 커넥션 풀의 나머지 설정(timeout, data-source-properties 등)은 primary(spring.datasource.hikari)와 같다.
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "spring.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled;
+
+    // 지연 시간이 이보다 긴 replica는 읽기에 사용하지 않는다.
+    private long maxLagMs = 1000;
+
+    private long heartbeatIntervalMs = 500;
+
+    // replica 하나의 커넥션 풀 크기
+    private int maximumPoolSize = 20;
+
+    private List<Node> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String name; // 지표 태그, 커넥션 풀 이름 (없으면 순서대로 replica-0, replica-1 ...)
+        private String url;
+        private String username; // 없으면 primary와 같다.
+        private String password;
+    }
+}
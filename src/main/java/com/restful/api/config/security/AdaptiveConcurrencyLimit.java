@@ -0,0 +1,97 @@
+package com.restful.api.config.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 응답 시간에 따라 늘었다 줄었다 하는 동시 처리 수 제한 (AIMD)
+ * 동시에 처리 중인 요청이 limit 이상이면 바로 거절한다. 대기열이 없으므로 거절 비용은 CAS 한 번이다.
+ * - 감소 : 응답 시간이 latency-threshold-ms를 넘으면 limit에 backoff-ratio를 곱한다. 느린 응답이 몰려도 threshold 시간에 한 번만 줄인다.
+ * - 증가 : 응답이 빠르고 limit의 절반 이상을 사용 중이면 1씩 늘린다.
+ * DB 커넥션 풀이 고갈되어 응답이 느려지면 limit이 줄어 요청이 풀을 기다리며 쌓이기 전에 거절된다.
+ */
+
+@Component
+public class AdaptiveConcurrencyLimit implements MeterBinder {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+
+    public AdaptiveConcurrencyLimit(@Value("${spring.throttle.concurrency.initial-limit:50}") int initialLimit,
+                                    @Value("${spring.throttle.concurrency.min-limit:10}") int minLimit,
+                                    @Value("${spring.throttle.concurrency.max-limit:200}") int maxLimit,
+                                    @Value("${spring.throttle.concurrency.latency-threshold-ms:250}") long latencyThresholdMillis,
+                                    @Value("${spring.throttle.concurrency.backoff-ratio:0.9}") double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid concurrency limit settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(Math.min(maxLimit, Math.max(minLimit, initialLimit)));
+    }
+
+    // 처리 순서를 얻으면 true, 처리가 끝나면 반드시 release를 호출해야 한다.
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // 요청 처리에 걸린 시간으로 limit을 조정한다.
+    public void release(long elapsedNanos) {
+        int current = inFlight.getAndDecrement();
+        if (elapsedNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (current * 2 >= limit.get()) {
+            limit.accumulateAndGet(1, (value, delta) -> Math.min(maxLimit, value + delta));
+        }
+    }
+
+    private void decrease() {
+        long now = System.nanoTime();
+        long last = lastDecrease.get();
+        if (now - last < latencyThresholdNanos || !lastDecrease.compareAndSet(last, now)) {
+            return;
+        }
+        limit.updateAndGet(value -> Math.max(minLimit, (int) (value * backoffRatio)));
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("throttle.concurrency.limit", limit, AtomicInteger::get)
+                .description("현재 동시 처리 수 제한")
+                .register(registry);
+        Gauge.builder("throttle.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("처리 중인 요청 수")
+                .register(registry);
+    }
+}
@@ -0,0 +1,153 @@
+package com.restful.api.config.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 클라이언트(JWT subject 또는 IP)별 요청 수 제한
+ * 클라이언트마다 초당 permits-per-second 개씩 채워지고 최대 burst 개까지 모이는 토큰 버킷을 사용한다.
+ * 버킷은 "다음 요청이 허용되는 이론적 시각" 하나만 AtomicLong으로 저장하고 CAS로 갱신하므로 락을 잡지 않는다. (GCRA)
+ * 이 시각이 현재보다 과거이면 버킷이 가득 찬 상태이므로, 버킷을 지워도 새로 만든 버킷과 동작이 같다. 그래서 유휴 버킷을 바로 제거할 수 있다.
+ * 외부 입력(IP)으로 메모리가 무한히 늘지 않도록 버킷은 stripe별 ConcurrentHashMap에 나누어 담고 stripe마다 개수를 제한한다.
+ * stripe가 가득 차면 그 stripe의 유휴 버킷을 먼저 제거하고, 그래도 가득 차 있으면 새 클라이언트는 stripe의 공용 버킷을 함께 사용한다.
+ */
+
+@Component
+public class ClientRateLimiter implements MeterBinder {
+
+    private static final int STRIPES = 16;
+
+    private final long intervalNanos; // 토큰 하나가 채워지는 시간
+    private final long burstNanos; // 버킷이 가득 찼을 때 모여 있는 시간 (burst * interval)
+    private final int maxClientsPerStripe;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public ClientRateLimiter(@Value("${spring.throttle.rate-limit.permits-per-second:50}") double permitsPerSecond,
+                             @Value("${spring.throttle.rate-limit.burst:100}") int burst,
+                             @Value("${spring.throttle.rate-limit.max-clients:100000}") int maxClients) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permits-per-second must be positive and burst at least 1");
+        }
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.maxClientsPerStripe = Math.max(1, maxClients / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    // 허용되면 0, 거절되면 다음 요청이 허용될 때까지 기다려야 하는 시간(ns)을 반환한다.
+    public long tryAcquire(String client) {
+        return tryAcquire(client, System.nanoTime());
+    }
+
+    long tryAcquire(String client, long now) {
+        AtomicLong bucket = stripeOf(client).bucket(client, now);
+        while (true) {
+            long allowedAt = bucket.get();
+            long next = Math.max(allowedAt, now) + intervalNanos;
+            long waitNanos = next - now - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(allowedAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // 가득 찬(유휴) 버킷을 제거한다. 요청이 없는 동안에도 메모리가 반환되도록 주기적으로 실행한다.
+    @Scheduled(fixedDelayString = "${spring.throttle.rate-limit.idle-sweep-interval-ms:60000}")
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    void evictIdle(long now) {
+        for (Stripe stripe : stripes) {
+            stripe.evictIdle(now);
+        }
+    }
+
+    // 현재 버킷을 가지고 있는 클라이언트 수
+    public int trackedClients() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("throttle.clients", this, ClientRateLimiter::trackedClients)
+                .description("요청 수 제한 버킷을 가지고 있는 클라이언트 수")
+                .register(registry);
+        FunctionCounter.builder("throttle.clients.overflow", this, ClientRateLimiter::overflowCount)
+                .description("버킷 수 제한으로 공용 버킷을 사용한 요청 수")
+                .register(registry);
+    }
+
+    private double overflowCount() {
+        long count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.overflowCount.get();
+        }
+        return count;
+    }
+
+    private Stripe stripeOf(String client) {
+        int h = client.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private class Stripe {
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflow = new AtomicLong(System.nanoTime());
+        private final AtomicLong overflowCount = new AtomicLong();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+
+        AtomicLong bucket(String client, long now) {
+            AtomicLong bucket = buckets.get(client);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= maxClientsPerStripe) {
+                evictIdle(now);
+                if (buckets.size() >= maxClientsPerStripe) {
+                    overflowCount.incrementAndGet();
+                    return overflow;
+                }
+            }
+            return buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+        }
+
+        // 동시에 여러 스레드가 같은 stripe를 훑지 않도록 한 스레드만 제거한다.
+        // 제거 직전에 버킷을 가져간 요청이 있으면 그 요청만 이전 버킷에서 처리되므로, 최대 토큰 하나만큼 더 허용될 수 있다.
+        void evictIdle(long now) {
+            if (!evicting.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                Iterator<AtomicLong> iterator = buckets.values().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().get() - now <= 0) {
+                        iterator.remove();
+                    }
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+}
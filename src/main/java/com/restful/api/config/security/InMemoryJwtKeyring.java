@@ -0,0 +1,44 @@
+package com.restful.api.config.security;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 시작할 때 만들어 두고 바뀌지 않는 keyring
+public class InMemoryJwtKeyring implements JwtKeyring {
+
+    private final JwtKey signingKey;
+    private final Map<String, JwtKey> keys;
+
+    public InMemoryJwtKeyring(String activeKid, List<JwtKey> keys) {
+        Map<String, JwtKey> byKid = new LinkedHashMap<>();
+        for (JwtKey key : keys) {
+            if (byKid.put(key.getKid(), key) != null) {
+                throw new IllegalArgumentException("Duplicated JWT kid: " + key.getKid());
+            }
+        }
+        JwtKey active = byKid.get(activeKid);
+        if (active == null || !active.canSign()) {
+            throw new IllegalArgumentException("Active JWT key must exist and have a signing key: " + activeKid);
+        }
+        this.signingKey = active;
+        this.keys = Collections.unmodifiableMap(byKid);
+    }
+
+    @Override
+    public JwtKey getSigningKey() {
+        return signingKey;
+    }
+
+    @Override
+    public JwtKey getKey(String kid) {
+        return keys.get(kid);
+    }
+
+    @Override
+    public Collection<JwtKey> getKeys() {
+        return keys.values();
+    }
+}
@@ -0,0 +1,22 @@
+package com.restful.api.config.security;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// 단일 노드(개발, 테스트)용 RevocationBackend, 같은 프로세스의 구독자에게만 전달한다.
+public class InMemoryRevocationBackend implements RevocationBackend {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String jti, long expiresAt) {
+        for (Listener listener : listeners) {
+            listener.onRevoked(jti, expiresAt);
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+}
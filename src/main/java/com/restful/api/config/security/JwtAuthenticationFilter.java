@@ -1,40 +1,67 @@
 package com.restful.api.config.security;
 
-
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.web.filter.GenericFilterBean;
+import org.springframework.web.filter.OncePerRequestFilter;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
-import javax.servlet.ServletRequest;
-import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /*
  * JWT가 유효한 토큰인지 인증하기 위한 Filter
  * SecurityConfig에 설정할 때, UsernamePsasswordAuthenticationFilter 앞에 세팅한다.
+ * 토큰 확인에 걸린 시간은 jwt.filter 타이머에 결과(none, authenticated, rejected)별로 기록한다.
+ * OncePerRequestFilter이므로 오류 페이지(/error), 비동기 재처리(async dispatch)로 다시 들어온 요청은 토큰을 다시 확인하지 않는다.
+ * 공개 주소, swagger, health check는 SecurityConfig에서 필터 체인 자체를 거치지 않도록 설정한다.
  */
 
-public class JwtAuthenticationFilter extends GenericFilterBean {
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
 
+    private final Timer noTokenTimer;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+
     // Jwt Provider 주입
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, MeterRegistry meterRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.noTokenTimer = timer(meterRegistry, "none");
+        this.authenticatedTimer = timer(meterRegistry, "authenticated");
+        this.rejectedTimer = timer(meterRegistry, "rejected");
     }
 
-    // Request로 들어오는 JWT 토큰의 유효성 검증(jwtTokenProvider.validateToken) 하는 filter를 filterChain에 등록한다.
+    // Request로 들어오는 JWT 토큰의 유효성 검증 하는 filter를 filterChain에 등록한다.
+    // getAuthentication은 검증과 인증 정보 조회를 한 번의 파싱으로 처리하며, 유효하지 않은 토큰이면 null을 반환한다.
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
-        String token = jwtTokenProvider.resolveToken((HttpServletRequest)request);
-        if(token != null && jwtTokenProvider.validateToken(token)) {
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        long started = System.nanoTime();
+        Timer timer = noTokenTimer;
+        String token = jwtTokenProvider.resolveToken(request);
+        if(token != null) {
             Authentication authentication = jwtTokenProvider.getAuthentication(token);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            if(authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                timer = authenticatedTimer;
+            } else {
+                timer = rejectedTimer;
+            }
         }
+        timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
 
         chain.doFilter(request, response);
     }
+
+    private static Timer timer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.filter")
+                .description("JWT 토큰 확인에 걸린 시간")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,127 @@
+package com.restful.api.config.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.Getter;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * JWT 서명/검증 키 하나 (kid로 구분)
+ * 설정 값(문자열)은 시작할 때 한 번만 java.security.Key로 변환해 두고, 토큰을 발급/검증할 때마다 다시 만들지 않는다.
+ * - HS256 등 : 공유 비밀 키, 서명과 검증에 같은 키를 사용한다.
+ * - RS256, ES256 등 : 개인 키로 서명하고 공개 키로 검증한다. 공개 키만 있으면(이전 키) 검증에만 사용한다.
+ */
+
+@Getter
+public final class JwtKey {
+
+    private final String kid;
+    private final SignatureAlgorithm algorithm;
+    private final Key signingKey; // 검증 전용 키이면 null
+    private final Key verificationKey;
+
+    private JwtKey(String kid, SignatureAlgorithm algorithm, Key signingKey, Key verificationKey) {
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.signingKey = signingKey;
+        this.verificationKey = verificationKey;
+    }
+
+    public static JwtKey hmac(String kid, SignatureAlgorithm algorithm, byte[] secret) {
+        if (!algorithm.isHmac()) {
+            throw new IllegalArgumentException("Not an HMAC algorithm: " + algorithm);
+        }
+        Key key = new SecretKeySpec(secret, algorithm.getJcaName());
+        return new JwtKey(kid, algorithm, key, key);
+    }
+
+    public static JwtKey asymmetric(String kid, SignatureAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey) {
+        if (!algorithm.isRsa() && !algorithm.isEllipticCurve()) {
+            throw new IllegalArgumentException("Not an asymmetric algorithm: " + algorithm);
+        }
+        return new JwtKey(kid, algorithm, privateKey, publicKey);
+    }
+
+    // 설정 값으로 키를 만든다. 비대칭 키는 Base64(DER) 또는 PEM 형식이다. (개인 키 PKCS#8, 공개 키 X.509)
+    public static JwtKey from(JwtKeyProperties.Key properties) {
+        SignatureAlgorithm algorithm = SignatureAlgorithm.forName(properties.getAlgorithm());
+        if (algorithm.isHmac()) {
+            return hmac(properties.getKid(), algorithm, properties.getSecret().getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm.isRsa() ? "RSA" : "EC");
+            PrivateKey privateKey = properties.getPrivateKey() == null ? null
+                    : keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decodePem(properties.getPrivateKey())));
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decodePem(properties.getPublicKey())));
+            return asymmetric(properties.getKid(), algorithm, privateKey, publicKey);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid JWT key: " + properties.getKid(), e);
+        }
+    }
+
+    public boolean canSign() {
+        return signingKey != null;
+    }
+
+    // 다른 서비스가 검증에 사용할 공개 키 (JWK), 공유 비밀 키이면 공개하지 않으므로 null
+    public Map<String, Object> toPublicJwk() {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm.getValue());
+        if (verificationKey instanceof RSAPublicKey) {
+            RSAPublicKey rsa = (RSAPublicKey) verificationKey;
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsa.getModulus(), 0));
+            jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+            return jwk;
+        }
+        if (verificationKey instanceof ECPublicKey) {
+            ECPublicKey ec = (ECPublicKey) verificationKey;
+            int size = (ec.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+            jwk.put("kty", "EC");
+            jwk.put("crv", size == 32 ? "P-256" : size == 48 ? "P-384" : "P-521");
+            jwk.put("x", base64Url(ec.getW().getAffineX(), size));
+            jwk.put("y", base64Url(ec.getW().getAffineY(), size));
+            return jwk;
+        }
+        return null;
+    }
+
+    private static byte[] decodePem(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Key is required");
+        }
+        String base64 = value.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    // 부호 없는 big-endian 바이트를 Base64 URL로 인코딩한다. size가 0보다 크면 그 길이에 맞춰 앞을 0으로 채운다.
+    private static String base64Url(BigInteger value, int size) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (size > bytes.length) {
+            byte[] padded = new byte[size];
+            System.arraycopy(bytes, 0, padded, size - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,28 @@
+package com.restful.api.config.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Configuration
+@EnableConfigurationProperties(JwtKeyProperties.class)
+public class JwtKeyConfig {
+
+    private static final String DEFAULT_KID = "default";
+
+    @Bean
+    public JwtKeyring jwtKeyring(JwtKeyProperties properties) {
+        if (properties.getKeys().isEmpty()) {
+            JwtKey key = JwtKey.hmac(DEFAULT_KID, SignatureAlgorithm.HS256, properties.getSecret().getBytes(StandardCharsets.UTF_8));
+            return new InMemoryJwtKeyring(DEFAULT_KID, Collections.singletonList(key));
+        }
+        List<JwtKey> keys = properties.getKeys().stream().map(JwtKey::from).collect(Collectors.toList());
+        return new InMemoryJwtKeyring(properties.getActiveKid(), keys);
+    }
+}
@@ -0,0 +1,36 @@
+package com.restful.api.config.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * JWT 키 설정 (spring.jwt.*)
+ * keys가 없으면 secret으로 HS256 키 하나(kid: default)를 만든다.
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "spring.jwt")
+public class JwtKeyProperties {
+
+    private String secret;
+
+    // 토큰 발급에 사용할 키의 kid
+    private String activeKid;
+
+    private List<Key> keys = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Key {
+        private String kid;
+        private String algorithm = "HS256"; // HS256, RS256, ES256 등
+        private String secret; // HMAC
+        private String privateKey; // RSA, EC : PKCS#8, 이전 키는 생략 (검증 전용)
+        private String publicKey; // RSA, EC : X.509
+    }
+}
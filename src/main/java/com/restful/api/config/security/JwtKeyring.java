@@ -0,0 +1,21 @@
+package com.restful.api.config.security;
+
+import java.util.Collection;
+
+/*
+ * JWT 키 목록 (keyring)
+ * 토큰은 현재 서명 키(getSigningKey)로 발급하고 헤더의 kid에 키 이름을 넣는다.
+ * 검증할 때는 토큰 헤더의 kid로 키를 찾으므로, 키를 교체(rotation)해도 이전 키를 목록에 남겨두면 이미 발급한 토큰을 계속 검증할 수 있다.
+ * 구현을 바꾸면 설정 파일 대신 다른 저장소(ex. KMS)에서 키를 가져올 수 있다.
+ */
+
+public interface JwtKeyring {
+
+    // 토큰 발급에 사용하는 키
+    JwtKey getSigningKey();
+
+    // kid에 해당하는 키, 없으면 null
+    JwtKey getKey(String kid);
+
+    Collection<JwtKey> getKeys();
+}
@@ -0,0 +1,16 @@
+package com.restful.api.config.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JwtRevocationConfig {
+
+    // 공유 저장소를 사용하는 RevocationBackend 빈이 없으면 단일 노드용을 사용한다.
+    @Bean
+    @ConditionalOnMissingBean(RevocationBackend.class)
+    public RevocationBackend revocationBackend() {
+        return new InMemoryRevocationBackend();
+    }
+}
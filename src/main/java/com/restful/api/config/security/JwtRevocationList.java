@@ -0,0 +1,91 @@
+package com.restful.api.config.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * 폐기된 토큰 목록 (jti denylist)
+ * 토큰의 만료 시각(exp)을 1분 단위 구간(bucket)으로 나누어 jti를 보관한다.
+ * - 확인 : 토큰의 exp로 구간을 바로 찾으므로 해시 조회 두 번이면 끝난다. 폐기된 토큰이 하나도 없으면 조회 없이 false를 반환한다.
+ * - 만료 : 항목마다 만료 시간을 관리하지 않고, 만료 시각이 지난 구간을 통째로 제거한다.
+ * 만료된 토큰은 서명 검증 단계에서 이미 거부되므로 목록에는 아직 유효한 토큰만 남는다.
+ * 폐기 사실은 RevocationBackend로 다른 노드에 전달한다.
+ */
+
+@Component
+public class JwtRevocationList implements MeterBinder {
+
+    private static final long BUCKET_MILLIS = 60_000L;
+
+    private final ConcurrentMap<Long, Set<String>> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final RevocationBackend backend;
+
+    public JwtRevocationList(RevocationBackend backend) {
+        this.backend = backend;
+        backend.subscribe(this::add);
+    }
+
+    // 토큰을 폐기한다. 이미 폐기된 토큰이면 false
+    public boolean revoke(String jti, long expiresAt) {
+        if (!add(jti, expiresAt)) {
+            return false;
+        }
+        backend.publish(jti, expiresAt);
+        return true;
+    }
+
+    public boolean isRevoked(String jti, long expiresAt) {
+        if (size.get() == 0 || jti == null) {
+            return false;
+        }
+        Set<String> bucket = buckets.get(expiresAt / BUCKET_MILLIS);
+        return bucket != null && bucket.contains(jti);
+    }
+
+    private boolean add(String jti, long expiresAt) {
+        if (jti == null || expiresAt <= System.currentTimeMillis()) {
+            return false;
+        }
+        boolean added = buckets.computeIfAbsent(expiresAt / BUCKET_MILLIS, bucket -> ConcurrentHashMap.newKeySet()).add(jti);
+        if (added) {
+            size.incrementAndGet();
+        }
+        return added;
+    }
+
+    // 만료 시각이 지난 구간을 제거한다.
+    @Scheduled(fixedDelay = BUCKET_MILLIS)
+    public void purgeExpired() {
+        long current = System.currentTimeMillis() / BUCKET_MILLIS;
+        Iterator<Map.Entry<Long, Set<String>>> iterator = buckets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Set<String>> entry = iterator.next();
+            if (entry.getKey() < current) {
+                iterator.remove();
+                size.addAndGet(-entry.getValue().size());
+            }
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jwt.revocations", size, AtomicInteger::get)
+                .description("폐기되었지만 아직 만료되지 않은 토큰 수")
+                .register(registry);
+    }
+}
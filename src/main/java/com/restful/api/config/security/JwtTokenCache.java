@@ -0,0 +1,130 @@
+package com.restful.api.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 검증이 끝난 JWT 토큰 캐시
+ * 같은 토큰이 반복해서 들어오면 파싱 + HMAC 검증을 다시 하지 않고, 이전에 검증한 Claims를 그대로 사용한다.
+ * 회원 정보(Authentication)는 보관하지 않는다. 요청마다 UserPrincipalCache에서 다시 가져오므로
+ * 다른 노드에서 회원이 삭제되거나 권한이 바뀌어도 principal-cache.ttl-seconds 안에 반영된다.
+ * 키는 토큰 원문이 아닌 SHA-256 digest를 사용하므로 토큰이 메모리에 그대로 남지 않는다.
+ * 각 항목은 토큰의 exp 시각에 맞춰 만료되며, 최대 개수를 넘으면 자주 쓰이지 않는 항목부터 제거된다.
+ * 적중(hit)/실패(miss)/제거(eviction) 횟수는 stats()로 확인할 수 있다.
+ */
+
+@Component
+public class JwtTokenCache implements MeterBinder {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public JwtTokenCache(@Value("${spring.jwt.cache.maximum-size:10000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    // 토큰 원문을 캐시 키(digest)로 변환한다.
+    public String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    // 캐시에 있고 아직 만료되지 않은 토큰이면 반환한다.
+    public VerifiedToken get(String digest) {
+        VerifiedToken verified = cache.getIfPresent(digest);
+        if (verified == null || verified.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return verified;
+    }
+
+    // 검증이 끝난 토큰을 캐시에 저장한다.
+    public VerifiedToken put(String digest, Claims claims) {
+        VerifiedToken verified = new VerifiedToken(claims);
+        cache.put(digest, verified);
+        return verified;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // cache.gets(hit/miss), cache.evictions 등을 cache=jwtTokens 태그로 등록한다.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "jwtTokens");
+    }
+
+    // hitCount, missCount, evictionCount 등 캐시 통계
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Getter
+    public static class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAt;
+
+        VerifiedToken(Claims claims) {
+            this.claims = claims;
+            this.expiresAt = claims.getExpiration().getTime();
+        }
+
+        public String getSubject() {
+            return claims.getSubject();
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+
+    // 항목마다 토큰의 남은 유효시간만큼만 캐시에 머무르도록 한다.
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remaining = value.getExpiresAt() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remaining));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.restful.api.config.security;
 
+import com.restful.api.advice.exception.CUserNotFoundException;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -12,11 +16,11 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
-import java.util.Base64;
+import java.security.Key;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 /*
  * JWT 토큰 생성 및 유효성 검사를 하는 컴포넌트이다.
@@ -25,50 +29,127 @@ import java.util.List;
  * 보통 claim 정보에 회원을 구분할 수 있는 값을 세팅하고, 토큰이 들어오면 해당 값으로 회원을 구분하여 리소르를 제공한다.
  * 그리고 JWT는 토큰 만료 시간을 세팅하여 발급 후 일정 시간에 만료시킬 수 있다.
  *
-
+ * 서명/검증 키는 JwtKeyring에서 가져온다. 발급하는 토큰 헤더에 kid를 넣고, 검증할 때는 kid와 alg가 일치하는 키로만 검증한다.
+ * (kid가 없는 토큰은 현재 서명 키로 검증한다)
+ *
+ * 접근(access) 토큰과 재발급(refresh) 토큰은 typ claim으로 구분하며, 재발급 토큰으로는 API를 호출할 수 없다.
+ * 모든 토큰은 jti(토큰 id)를 가지며, 로그아웃 등으로 폐기한 토큰은 JwtRevocationList(메모리)에서 확인하므로 요청마다 DB를 조회하지 않는다.
  */
 
 @RequiredArgsConstructor
 @Component
 public class JwtTokenProvider { // JWT 토큰을 생성 및 검증 모듈
 
-    @Value("spring.jwt.secret")
-    private String secretKey;
+    private static final String CLAIM_TYPE = "typ";
+    private static final String TYPE_ACCESS = "access";
+    private static final String TYPE_REFRESH = "refresh";
+
+    @Value("${spring.jwt.access-token-validity-ms:3600000}")
+    private long tokenValidMillisecond = 1000L * 60 * 60; // 1시간동안 토큰 유효
 
-    private Long tokenValidMillisecond = 1000L * 60 * 60; // 1시간동안 토큰 유효
+    @Value("${spring.jwt.refresh-token-validity-ms:1209600000}")
+    private long refreshTokenValidMillisecond = 1000L * 60 * 60 * 24 * 14; // 14일동안 재발급 토큰 유효
 
     private final UserDetailsService userDetailsService;
 
-    @PostConstruct
-    protected void init() {
-        System.out.println("초기화");
-        secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
-    }
+    private final JwtTokenCache tokenCache;
+
+    private final JwtKeyring keyring;
+
+    private final JwtRevocationList revocationList;
+
+    // 토큰 헤더의 kid, alg로 검증 키를 찾는다. alg가 키와 다르면(ex. 공개 키를 HMAC 비밀 키로 사용하는 공격) 거부한다.
+    private final SigningKeyResolver keyResolver = new SigningKeyResolverAdapter() {
+        @Override
+        @SuppressWarnings("rawtypes") // jjwt 0.9.1의 SigningKeyResolver가 raw 타입으로 선언되어 있어 그대로 재정의한다.
+        public Key resolveSigningKey(JwsHeader jws, Claims claims) {
+            JwsHeader<?> header = jws;
+            JwtKey key = header.getKeyId() == null ? keyring.getSigningKey() : keyring.getKey(header.getKeyId());
+            if (key == null || !key.getAlgorithm().getValue().equals(header.getAlgorithm())) {
+                throw new SignatureException("Unknown JWT key: kid=" + header.getKeyId() + ", alg=" + header.getAlgorithm());
+            }
+            return key.getVerificationKey();
+        }
+    };
 
     // JWT 토큰 생성
     public String createToken(String userPk, List<String> roles) {
         Claims claims = Jwts.claims().setSubject(userPk);
         claims.put("roles", roles);
+        claims.put(CLAIM_TYPE, TYPE_ACCESS);
+        return sign(claims, tokenValidMillisecond);
+    }
+
+    // 재발급(refresh) 토큰 생성, 접근 토큰이 만료되면 이 토큰으로 새 토큰을 발급받는다.
+    public String createRefreshToken(String userPk) {
+        Claims claims = Jwts.claims().setSubject(userPk);
+        claims.put(CLAIM_TYPE, TYPE_REFRESH);
+        return sign(claims, refreshTokenValidMillisecond);
+    }
+
+    private String sign(Claims claims, long validMillisecond) {
         Date now = new Date();
+        JwtKey key = keyring.getSigningKey();
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, key.getKid()) // 검증할 때 사용할 키
                 .setClaims(claims) // 데이터
+                .setId(UUID.randomUUID().toString()) // 토큰 id (폐기할 때 사용)
                 .setIssuedAt(now) // 토큰 발행 일자
-                .setExpiration(new Date(now.getTime() + tokenValidMillisecond)) // 토큰 만료 시간
-                .signWith(SignatureAlgorithm.HS256, secretKey) // 암호화 알고리, 비밀 키
+                .setExpiration(new Date(now.getTime() + validMillisecond)) // 토큰 만료 시간
+                .signWith(key.getAlgorithm(), key.getSigningKey()) // 암호화 알고리즘, 서명 키
                 .compact();
     }
 
-    // JWT 토큰으로 인증 정보를 조회
+    // JWT 토큰으로 인증 정보를 조회, 유효하지 않은 토큰이면 null을 반환한다.
+    // 토큰은 요청마다 한 번만 파싱하고, 검증이 끝난 토큰은 캐시에서 꺼내 쓴다.
+    // 폐기 여부와 회원 정보는 캐시에 있는 토큰도 매번 확인한다. (회원 정보는 UserPrincipalCache에서 가져온다)
     public Authentication getAuthentication(String token) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(getUserPk(token));
+        JwtTokenCache.VerifiedToken verified = verify(token);
+        if (verified == null || revocationList.isRevoked(verified.getClaims().getId(), verified.getExpiresAt())) {
+            return null;
+        }
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(verified.getSubject());
+        } catch (CUserNotFoundException e) {
+            return null; // 탈퇴한 회원의 토큰은 인증하지 않는다. (필터에서 예외가 나면 500으로 응답된다)
+        }
         return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
 
+    // 캐시를 먼저 확인하고, 없으면 파싱 + 서명 검증 후 캐시에 저장한다.
+    private JwtTokenCache.VerifiedToken verify(String token) {
+        String digest = tokenCache.digest(token);
+        JwtTokenCache.VerifiedToken verified = tokenCache.get(digest);
+        if (verified != null) {
+            return verified;
+        }
+
+        Claims claims = parseClaims(token);
+        if (claims == null || !isAccessToken(claims)) {
+            return null;
+        }
+        return tokenCache.put(digest, claims);
+    }
+
+    // 서명과 만료 시간을 검증하고 Claims를 반환한다. 유효하지 않으면 null
+    private Claims parseClaims(String token) {
+        try {
+            Claims claims = parser().parseClaimsJws(token).getBody();
+            if (claims.getExpiration() == null || claims.getExpiration().before(new Date())) {
+                return null;
+            }
+            return claims;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
 
     // JWT 토큰에서 회원 구별 정보를 추출
     public String getUserPk(String token) {
-        return Jwts.parser().setSigningKey(secretKey).parseClaimsJws(token).getBody().getSubject();
+        return parser().parseClaimsJws(token).getBody().getSubject();
     }
 
     // Request 헤더에서 토큰 파싱 : "X-AUTH-TOKEN: JWT 토큰"
@@ -76,13 +157,43 @@ public class JwtTokenProvider { // JWT 토큰을 생성 및 검증 모듈
         return request.getHeader("X-AUTH-TOKEN");
     }
 
-    // JWT 토큰의 유효성 + 만료 시간 확인인
-    public boolean validateToken(String token) {
-        try {
-            Jws<Claims> claims = Jwts.parser().setSigningKey(secretKey).parseClaimsJws(token);
-            return !claims.getBody().getExpiration().before(new Date());
-        } catch (Exception e) {
-            return false;
+    private JwtParser parser() {
+        return Jwts.parser().setSigningKeyResolver(keyResolver);
+    }
+
+    // 유효하고 폐기되지 않은 재발급 토큰이면 Claims를 반환한다. 아니면 null
+    public Claims parseRefreshToken(String token) {
+        Claims claims = parseClaims(token);
+        if (claims == null || !TYPE_REFRESH.equals(claims.get(CLAIM_TYPE)) || isRevoked(claims)) {
+            return null;
         }
+        return claims;
+    }
+
+    // 토큰(접근, 재발급)을 폐기한다. 유효하지 않거나 이미 폐기된 토큰이면 false
+    public boolean revoke(String token) {
+        Claims claims = parseClaims(token);
+        return claims != null && revoke(claims);
+    }
+
+    public boolean revoke(Claims claims) {
+        return revocationList.revoke(claims.getId(), claims.getExpiration().getTime());
+    }
+
+    // 접근 토큰의 유효성 + 만료 시간 + 폐기 여부 확인
+    public boolean validateToken(String token) {
+        JwtTokenCache.VerifiedToken verified = tokenCache.get(tokenCache.digest(token));
+        Claims claims = verified != null ? verified.getClaims() : parseClaims(token);
+        return claims != null && isAccessToken(claims) && !isRevoked(claims);
+    }
+
+    // typ이 없는 토큰은 이 기능 이전에 발급된 접근 토큰이다.
+    private static boolean isAccessToken(Claims claims) {
+        Object type = claims.get(CLAIM_TYPE);
+        return type == null || TYPE_ACCESS.equals(type);
+    }
+
+    private boolean isRevoked(Claims claims) {
+        return revocationList.isRevoked(claims.getId(), claims.getExpiration().getTime());
     }
 }
@@ -0,0 +1,30 @@
+package com.restful.api.config.security;
+
+import com.restful.api.config.datasource.ReadRouting;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/*
+ * 요청한 클라이언트를 읽기 라우팅(ReadRouting)에 세팅하는 Filter
+ * 클라이언트는 ThrottlingFilter와 같이 인증된 회원 id, 그 외에는 IP로 구분한다.
+ * 이 클라이언트의 쓰기가 커밋되면 잠시 동안 이 클라이언트의 읽기는 replica 대신 primary에서 한다. (read-your-writes)
+ */
+
+public class ReadRoutingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadRouting.bindClient(ThrottlingFilter.clientOf(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.unbindClient();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.restful.api.config.security;
+
+/*
+ * 토큰 폐기(revocation) 목록을 노드 간에 공유하는 저장소
+ * 폐기 여부 확인은 각 노드의 메모리(JwtRevocationList)에서만 하고, 이 저장소는 폐기 사실을 다른 노드에 전달하는 데만 사용한다.
+ * 따라서 요청마다 저장소를 조회하지 않는다.
+ * 기본 구현(InMemoryRevocationBackend)은 같은 프로세스 안에서만 전달하며, Redis pub/sub 등으로 구현한 빈을 등록하면 교체된다.
+ */
+
+public interface RevocationBackend {
+
+    // 폐기한 토큰(jti)을 다른 노드에 알린다. expiresAt(epoch millis)이 지나면 더 이상 보관할 필요가 없다.
+    void publish(String jti, long expiresAt);
+
+    // 다른 노드에서 폐기한 토큰을 전달받는다. 구현체는 구독할 때 아직 만료되지 않은 기존 폐기 목록도 전달해야 한다.
+    void subscribe(Listener listener);
+
+    interface Listener {
+        void onRevoked(String jti, long expiresAt);
+    }
+}
@@ -1,6 +1,10 @@
 package com.restful.api.config.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.api.config.CompiledMessageSource;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -9,7 +13,13 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.web.servlet.LocaleResolver;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
 
 /*
  * 리소스 접근 제한 표현식
@@ -30,14 +40,43 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @Configuration
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
+    // 인증이 필요 없고 필터 체인도 거치지 않는 GET 요청, 토큰 확인, SecurityContext 생성, 권한 확인, 요청 수 제한을 하지 않는다.
+    // LB health check처럼 자주 들어오는 요청의 처리 비용을 줄이기 위해 사용하며, 응답에 회원 정보가 없는 주소만 넣는다. (SecurityFilterChainBenchmark)
+    private static final String[] IGNORED_GET_PATHS = {
+            "/.well-known/jwks.json", // 토큰 검증용 공개 키 목록
+            "/actuator/health/**" // LB health check
+    };
+
+    // 지표(/actuator/prometheus 등)는 캐시, 요청 현황을 드러내므로 health 외의 관리 엔드포인트는 지표 수집기의 주소에서만 접근할 수 있다.
+    @Value("${spring.monitoring.allowed-addresses:127.0.0.1,::1}")
+    private String[] monitoringAddresses;
+
     private final JwtTokenProvider jwtTokenProvider;
 
+    private final MeterRegistry meterRegistry;
+
+    private final ClientRateLimiter rateLimiter;
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final LocaleResolver localeResolver;
+
+    private final CompiledMessageSource messageSource;
+
+    private final ObjectMapper objectMapper;
+
     @Bean
     @Override
     public AuthenticationManager authenticationManagerBean() throws Exception {
         return super.authenticationManagerBean();
     }
 
+    // 비밀번호 암호화 (기본 bcrypt), 저장된 값 앞의 {bcrypt} 등으로 알고리즘을 구분하므로 나중에 알고리즘을 바꿀 수 있다.
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    }
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http
@@ -46,18 +85,34 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS) // jwt token으로 인증하므로 세션은 필요없으므로 생성안함.
                 .and()
                 .authorizeRequests() // 다음 리퀘스트에 대한 사용권한 체크
-                .antMatchers("/*/signin", "/*/signup").permitAll() // 가입 및 인증 주소는 누구나 접근가능
-                .antMatchers(HttpMethod.GET, "helloworld/**").permitAll() // hellowworld로 시작하는 GET요청 리소스는 누구나 접근가능
+                .antMatchers("/*/signin", "/*/signup", "/*/refresh").permitAll() // 가입 및 인증, 토큰 재발급 주소는 누구나 접근가능
+                .antMatchers(HttpMethod.GET, "/helloworld/**").permitAll() // helloworld로 시작하는 GET요청 리소스는 누구나 접근가능
+                .antMatchers(HttpMethod.GET, IGNORED_GET_PATHS).permitAll() // 보통은 체인을 거치지 않지만(web.ignoring), 무시 설정과 관계없이 공개 주소로 유지한다.
+                .antMatchers("/actuator/**").access(anyIpAddress(monitoringAddresses)) // 지표 수집기 주소만 접근가능
                 .anyRequest().hasRole("USER") // 그외 나머지 요청은 모두 인증된 회원만 접근 가능
                 .and()
-                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider), UsernamePasswordAuthenticationFilter.class); // jwt token 필터를 id/password 인증 필터 전에 넣는다
+                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider, meterRegistry), UsernamePasswordAuthenticationFilter.class) // jwt token 필터를 id/password 인증 필터 전에 넣는다
+                .addFilterAfter(new ThrottlingFilter(rateLimiter, concurrencyLimit, localeResolver, messageSource, objectMapper, meterRegistry),
+                        JwtAuthenticationFilter.class) // 인증된 회원별로 요청 수를 제한하도록 jwt token 필터 다음에 넣는다
+                .addFilterAfter(new ReadRoutingFilter(), ThrottlingFilter.class); // 회원별 read-your-writes를 위해 인증 이후에 넣는다
+
+    }
 
+    // hasIpAddress('10.0.0.0/8') or hasIpAddress('::1') ..., 주소가 없으면 모두 거부한다.
+    private static String anyIpAddress(String[] addresses) {
+        String expression = Arrays.stream(addresses)
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .map(address -> "hasIpAddress('" + address + "')")
+                .collect(Collectors.joining(" or "));
+        return expression.isEmpty() ? "denyAll" : expression;
     }
 
-    @Override // ignore check swagger resource
+    @Override // ignore check swagger resource, health check, jwks
     public void configure(WebSecurity web) {
         web.ignoring().antMatchers("/v2/api-docs", "/swagger-resources/**",
-                "/swagger-ui.html", "/webjars/**", "/swagger/**");
+                "/swagger-ui.html", "/webjars/**", "/swagger/**")
+                .antMatchers(HttpMethod.GET, IGNORED_GET_PATHS);
 
     }
 }
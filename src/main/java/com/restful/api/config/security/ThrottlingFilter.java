@@ -0,0 +1,152 @@
+package com.restful.api.config.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.api.config.CompiledMessageSource;
+import com.restful.api.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.LocaleResolver;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 요청 수 제한 및 과부하 차단 Filter
+ * SecurityConfig에서 JwtAuthenticationFilter 다음에 세팅하므로, 인증된 요청은 JWT subject(회원 id)로, 그 외에는 IP로 클라이언트를 구분한다.
+ * 1. 클라이언트별 토큰 버킷(ClientRateLimiter)이 비어 있으면 429를 반환한다.
+ * 2. 전체 동시 처리 수(AdaptiveConcurrencyLimit)가 가득 차 있으면 429를 반환한다.
+ * 거절 응답은 컨트롤러를 거치지 않으므로 ExceptionAdvice와 같은 실패 템플릿(tooManyRequests)으로 여기서 직접 쓴다.
+ * 비동기 요청은 응답이 끝날 때(AsyncListener) 처리 순서를 반환하고 응답 시간을 기록한다.
+ * health check, 지표 수집(/actuator)은 제한하지 않고, 회원 변경 피드와 회원 전체 스트리밍은 요청 수만 제한한다.
+ */
+
+public class ThrottlingFilter extends OncePerRequestFilter {
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final LocaleResolver localeResolver;
+    private final CompiledMessageSource messageSource;
+    private final ObjectMapper objectMapper;
+
+    private final Counter rateLimitedCounter;
+    private final Counter concurrencyLimitedCounter;
+
+    public ThrottlingFilter(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimit concurrencyLimit,
+                            LocaleResolver localeResolver, CompiledMessageSource messageSource,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
+        this.localeResolver = localeResolver;
+        this.messageSource = messageSource;
+        this.objectMapper = objectMapper;
+        this.rateLimitedCounter = counter(meterRegistry, "rate_limit");
+        this.concurrencyLimitedCounter = counter(meterRegistry, "concurrency");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long waitNanos = rateLimiter.tryAcquire(clientOf(request));
+        if (waitNanos > 0) {
+            rateLimitedCounter.increment();
+            reject(request, response, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            return;
+        }
+        if (isLongLived(request)) { // 연결을 오래 유지하는 요청은 처리 시간이 길어도 과부하가 아니므로 동시 처리 수에 넣지 않는다.
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            concurrencyLimitedCounter.increment();
+            reject(request, response, 1);
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(started));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                concurrencyLimit.release(System.nanoTime() - started);
+            }
+        }
+    }
+
+    // 회원 변경 피드(SSE, long-poll), 회원 전체 스트리밍(NDJSON)
+    private static boolean isLongLived(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.endsWith("/users/changes") || uri.endsWith("/users/stream");
+    }
+
+    // 인증된 요청은 회원 id, 그 외에는 IP (프록시 뒤에서는 server.forward-headers-strategy로 원래 IP를 사용한다)
+    static String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User) {
+            return "user:" + ((User) authentication.getPrincipal()).getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                messageSource.getFailure("tooManyRequests", localeResolver.resolveLocale(request)).getResult());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("http.server.throttled")
+                .description("요청 수 제한, 과부하 차단으로 거절한 요청 수")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    // 비동기 요청이 끝나면(완료, 제한 시간 초과, 오류 모두 onComplete가 호출된다) 처리 순서를 반환한다.
+    private class ReleaseOnComplete implements AsyncListener {
+        private final long started;
+
+        ReleaseOnComplete(long started) {
+            this.started = started;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            concurrencyLimit.release(System.nanoTime() - started);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
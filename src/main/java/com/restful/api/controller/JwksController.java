@@ -0,0 +1,42 @@
+package com.restful.api.controller;
+
+import com.restful.api.config.security.JwtKey;
+import com.restful.api.config.security.JwtKeyring;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * JWT 검증용 공개 키 목록 (JWK Set)
+ * 다른 서비스는 이 목록에서 토큰 헤더의 kid에 해당하는 공개 키를 찾아 비밀 키 공유 없이 토큰을 검증한다.
+ * 공유 비밀 키(HS256 등)는 내려주지 않는다.
+ */
+
+@RequiredArgsConstructor
+@RestController
+public class JwksController {
+
+    private final JwtKeyring keyring;
+
+    @GetMapping(value = "/.well-known/jwks.json")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> jwks() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (JwtKey key : keyring.getKeys()) {
+            Map<String, Object> jwk = key.toPublicJwk();
+            if (jwk != null) {
+                keys.add(jwk);
+            }
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(Collections.singletonMap("keys", keys));
+    }
+}
@@ -0,0 +1,150 @@
+package com.restful.api.controller.v1;
+
+import com.restful.api.advice.exception.CDuplicatedUidException;
+import com.restful.api.advice.exception.CInvalidTokenException;
+import com.restful.api.advice.exception.CSigninFailedException;
+import com.restful.api.config.security.JwtTokenProvider;
+import com.restful.api.dto.TokenPair;
+import com.restful.api.entity.User;
+import com.restful.api.event.UserChangedEvent;
+import com.restful.api.repository.UserRepository;
+import com.restful.api.response.CommonResult;
+import com.restful.api.response.ResponseService;
+import com.restful.api.response.SingleResult;
+import com.restful.api.service.RequestExecutor;
+import com.restful.api.service.UserService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.jsonwebtoken.Claims;
+import io.swagger.annotations.ApiParam;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/*
+ * 가입(signup), 로그인(signin)
+ * 로그인에 성공하면 JWT 접근 토큰과 재발급 토큰을 발급하며, 이후 요청은 X-AUTH-TOKEN 헤더에 접근 토큰을 담아 보낸다.
+ * 접근 토큰이 만료되면 재발급 토큰으로 새 토큰을 받는다. 사용한 재발급 토큰은 폐기하므로 한 번만 사용할 수 있다.
+ * 로그아웃하면 두 토큰을 모두 폐기한다.
+ * 가입 중복 확인은 uid 필터를 거치므로 새 uid는 DB를 조회하지 않는다. (UserService.isUidTaken)
+ * 로그인은 없는 uid도 비밀번호를 비교하므로, 응답 시간으로 가입된 uid인지 알 수 없다.
+ */
+
+@Api(tags = {"3. Sign"})
+@RequiredArgsConstructor
+@RequestMapping(value = "/v1")
+@RestController
+public class SignController {
+
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final ResponseService responseService;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestExecutor requestExecutor;
+
+    // 없는 uid, 비밀번호가 없는 회원의 로그인에서 비교할 해시, 처음 사용할 때 만든다.
+    private volatile String dummyPasswordHash;
+
+    @ApiOperation(value = "로그인", notes = "uid와 비밀번호로 로그인하고 JWT 접근 토큰과 재발급 토큰을 발급받는다.")
+    @PostMapping(value = "/signin")
+    public CompletableFuture<SingleResult<TokenPair>> signin(@ApiParam(value = "회원아이디", required = true) @RequestParam String uid,
+                                                          @ApiParam(value = "비밀번호", required = true) @RequestParam String password) {
+        return requestExecutor.submit(() -> {
+            User user = userService.findByUid(uid).orElse(null);
+            String passwordHash = user != null ? user.getPassword() : null;
+            // 회원이 없어도 같은 비용의 비교를 한다.
+            boolean matches = passwordEncoder.matches(password, passwordHash != null ? passwordHash : dummyPasswordHash());
+            if (passwordHash == null || !matches) {
+                throw CSigninFailedException.INSTANCE;
+            }
+            return responseService.getSingleResult(issueTokens(user));
+        });
+    }
+
+    @ApiOperation(value = "토큰 재발급", notes = "재발급 토큰으로 새 접근 토큰과 재발급 토큰을 발급받는다. 사용한 재발급 토큰은 폐기된다.")
+    @PostMapping(value = "/refresh")
+    public CompletableFuture<SingleResult<TokenPair>> refresh(@ApiParam(value = "재발급 토큰", required = true) @RequestParam String refreshToken) {
+        // 서명 검증과 폐기 여부 확인은 DB 작업이 아니므로 바로 처리한다.
+        Claims claims = jwtTokenProvider.parseRefreshToken(refreshToken);
+        if (claims == null) {
+            throw CInvalidTokenException.INSTANCE;
+        }
+        return requestExecutor.submit(() -> {
+            // 그 사이 바뀐 권한을 반영하기 위해 회원정보를 다시 읽는다.
+            User user = userService.findById(Long.valueOf(claims.getSubject())).orElseThrow(() -> CInvalidTokenException.INSTANCE);
+            // 회원정보를 읽은 뒤에 폐기하므로, 과부하(503)나 DB 오류로 실패하면 같은 토큰으로 다시 요청할 수 있다.
+            if (!jwtTokenProvider.revoke(claims)) { // 동시에 같은 토큰으로 요청하면 먼저 폐기한 요청만 성공한다.
+                throw CInvalidTokenException.INSTANCE;
+            }
+            return responseService.getSingleResult(issueTokens(user));
+        });
+    }
+
+    @ApiOperation(value = "로그아웃", notes = "현재 접근 토큰(X-AUTH-TOKEN)과 재발급 토큰을 폐기한다.")
+    @PostMapping(value = "/signout")
+    public CommonResult signout(@ApiParam(value = "재발급 토큰") @RequestParam(required = false) String refreshToken,
+                                HttpServletRequest request) {
+        String accessToken = jwtTokenProvider.resolveToken(request);
+        if (accessToken != null) {
+            jwtTokenProvider.revoke(accessToken);
+        }
+        if (refreshToken != null) {
+            jwtTokenProvider.revoke(refreshToken);
+        }
+        return responseService.getSuccessResult();
+    }
+
+    @ApiOperation(value = "가입", notes = "회원가입을 한다.")
+    @PostMapping(value = "/signup")
+    public CompletableFuture<CommonResult> signup(@ApiParam(value = "회원아이디", required = true) @RequestParam String uid,
+                                                  @ApiParam(value = "비밀번호", required = true) @RequestParam String password,
+                                                  @ApiParam(value = "이름", required = true) @RequestParam String name) {
+        // 암호화는 CPU 작업이므로 DB 작업(bulkhead) 밖에서 먼저 처리한다.
+        User user = User.builder()
+                .uid(uid)
+                .password(passwordEncoder.encode(password))
+                .username(name)
+                .roles(Collections.singletonList("ROLE_USER"))
+                .build();
+
+        return requestExecutor.submit(() -> {
+            if (userService.isUidTaken(uid)) {
+                throw CDuplicatedUidException.INSTANCE;
+            }
+            User saved;
+            try {
+                saved = userRepository.save(user);
+            } catch (DataIntegrityViolationException e) { // 다른 요청(노드)이 먼저 같은 uid로 가입한 경우
+                throw new CDuplicatedUidException(uid, e);
+            }
+            eventPublisher.publishEvent(UserChangedEvent.created(saved));
+            return responseService.getSuccessResult();
+        });
+    }
+
+    private String dummyPasswordHash() {
+        String hash = dummyPasswordHash;
+        if (hash == null) { // 동시에 여러 번 만들어져도 어느 해시든 비교 비용은 같다.
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            dummyPasswordHash = hash;
+        }
+        return hash;
+    }
+
+    private TokenPair issueTokens(User user) {
+        String userPk = String.valueOf(user.getId());
+        return new TokenPair(jwtTokenProvider.createToken(userPk, user.getRoles()), jwtTokenProvider.createRefreshToken(userPk));
+    }
+}
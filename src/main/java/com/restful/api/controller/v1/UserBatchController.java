@@ -0,0 +1,67 @@
+package com.restful.api.controller.v1;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.api.dto.UserBatchItem;
+import com.restful.api.dto.UserBatchResult;
+import com.restful.api.response.ResponseService;
+import com.restful.api.response.SingleResult;
+import com.restful.api.service.UserBatchService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/*
+ * 회원 대량 등록/수정/삭제 API
+ * 요청 본문은 JSON 배열([{...}, {...}]) 또는 한 줄에 하나씩 JSON을 쓰는 NDJSON 모두 받을 수 있다.
+ * 본문을 한 번에 읽지 않고 한 건씩 읽어가며 처리하므로, 수십만 건을 보내도 메모리 사용량이 크게 늘지 않는다.
+ */
+
+@Api(tags = {"2. User Batch"})
+@RequiredArgsConstructor
+@RequestMapping(value = "/v1")
+@RestController
+public class UserBatchController {
+
+    private final UserBatchService userBatchService;
+    private final ResponseService responseService;
+    private final ObjectMapper objectMapper;
+
+    @ApiOperation(value = "회원 대량 등록", notes = "uid, username 목록으로 회원을 등록한다.")
+    @PostMapping(value = "/users/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public SingleResult<UserBatchResult> create(HttpServletRequest request) throws IOException {
+        try (MappingIterator<UserBatchItem> items = readItems(request)) {
+            return responseService.getSingleResult(userBatchService.create(items));
+        }
+    }
+
+    @ApiOperation(value = "회원 대량 수정", notes = "id, uid, username 목록으로 회원정보를 수정한다.")
+    @PutMapping(value = "/users/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public SingleResult<UserBatchResult> update(HttpServletRequest request) throws IOException {
+        try (MappingIterator<UserBatchItem> items = readItems(request)) {
+            return responseService.getSingleResult(userBatchService.update(items));
+        }
+    }
+
+    @ApiOperation(value = "회원 대량 삭제", notes = "id 목록으로 회원을 삭제한다.")
+    @DeleteMapping(value = "/users/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public SingleResult<UserBatchResult> delete(HttpServletRequest request) throws IOException {
+        try (MappingIterator<UserBatchItem> items = readItems(request)) {
+            return responseService.getSingleResult(userBatchService.delete(items));
+        }
+    }
+
+    // JSON 배열이면 배열의 원소를, NDJSON이면 줄 단위 값을 차례로 읽는다.
+    private MappingIterator<UserBatchItem> readItems(HttpServletRequest request) throws IOException {
+        return objectMapper.readerFor(UserBatchItem.class).readValues(request.getInputStream());
+    }
+}
@@ -0,0 +1,56 @@
+package com.restful.api.controller.v1;
+
+import com.restful.api.service.UserChangeFeed;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/*
+ * 회원 변경 피드
+ * 같은 주소를 Accept 헤더에 따라 두 가지 방식으로 제공한다.
+ * - text/event-stream : SSE, 연결을 유지한 채 변경이 생길 때마다 묶음(JSON 배열) 단위로 받는다. 재연결 시 Last-Event-ID로 이어받는다.
+ * - application/x-ndjson : long-poll, 변경이 생길 때까지 기다렸다가 한 줄에 하나씩 받는다. 응답의 X-Feed-Seq를 다음 요청의 after로 넘긴다.
+ * after가 없으면 요청 시점 이후의 변경부터 받는다.
+ */
+
+@Api(tags = {"4. User Changes"})
+@RequiredArgsConstructor
+@RequestMapping(value = "/v1")
+@RestController
+public class UserChangeController {
+
+    private final UserChangeFeed userChangeFeed;
+
+    @ApiOperation(value = "회원 변경 구독 (SSE)", notes = "회원 생성/수정/삭제를 Server-Sent Events로 받는다.")
+    @GetMapping(value = "/users/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> subscribe(@ApiParam(value = "이 seq 다음 변경부터 받는다") @RequestParam(required = false) Long after,
+                                                         @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = lastEventId != null ? lastEventId : after != null ? after : userChangeFeed.latestSeq();
+        ResponseBodyEmitter emitter = userChangeFeed.subscribe(from);
+        if (emitter == null) { // 구독자 수 제한, 응답 본문 형식(event-stream)이 달라 실패 결과(JSON)는 보내지 않는다.
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(emitter);
+    }
+
+    @ApiOperation(value = "회원 변경 조회 (long-poll)", notes = "after 다음 회원 생성/수정/삭제를 NDJSON으로 받는다. 변경이 없으면 생길 때까지 기다린다.")
+    @GetMapping(value = "/users/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public DeferredResult<ResponseEntity<byte[]>> poll(@ApiParam(value = "이 seq 다음 변경부터 받는다") @RequestParam(required = false) Long after) {
+        return userChangeFeed.poll(after != null ? after : userChangeFeed.latestSeq());
+    }
+}
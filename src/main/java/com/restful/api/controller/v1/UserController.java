@@ -1,19 +1,42 @@
 package com.restful.api.controller.v1;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.restful.api.advice.exception.CUserNotFoundException;
+import com.restful.api.dto.UserFields;
+import com.restful.api.dto.UserVersion;
+import com.restful.api.dto.UserView;
 import com.restful.api.entity.User;
+import com.restful.api.event.UserChangedEvent;
 import com.restful.api.repository.UserRepository;
 import com.restful.api.response.CommonResult;
+import com.restful.api.response.ConditionalRequest;
 import com.restful.api.response.ListResult;
+import com.restful.api.response.PageCursor;
 import com.restful.api.response.ResponseService;
 import com.restful.api.response.SingleResult;
+import com.restful.api.service.RequestExecutor;
+import com.restful.api.service.UserSearchIndex;
+import com.restful.api.service.UserService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /*
  * @RequiredArgsConstructor
@@ -36,6 +59,15 @@ import java.util.List;
  * @ApiParam(value = "", required = "") @RequestParam ~~~
  * 파라미터에 대한 설명을 보여주기 위해 세팅한다.
  *
+ * UserView
+ * User 엔티티 대신 응답용 DTO를 내려준다. fields 파라미터(?fields=id,uid)로 필요한 필드만 선택할 수 있다.
+ *
+ * Accept 헤더에 따라 JSON, CBOR(application/cbor), Smile(application/x-jackson-smile)로 응답한다. (WireFormatConfig)
+ *
+ * CompletableFuture<T>
+ * DB 작업은 RequestExecutor로 실행한다. sync 모드면 이미 완료된 future를, async 모드면 별도 스레드 풀의 future를 반환한다.
+ * 완료된 future는 결과를 바로 출력하고(CompletedFutureReturnValueHandler), 완료되지 않은 future는 스프링 MVC가 완료될 때 출력한다.
+ *
  */
 
 @Api(tags = {"1. User"})
@@ -44,58 +76,163 @@ import java.util.List;
 @RestController // 결과값을 JSON으로 출력한다.
 public class UserController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
+    private final UserService userService;
     private final ResponseService responseService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestExecutor requestExecutor;
+    private final UserSearchIndex userSearchIndex;
 
-    @ApiOperation(value = "회원 리스트 조회", notes = "모든 회원을 조회한다.")
+    @ApiOperation(value = "회원 리스트 조회", notes = "회원을 id 순으로 페이지 단위 조회한다. 응답의 nextCursor를 다음 요청의 cursor로 넘긴다.")
     @GetMapping(value = "/users")
-    public ListResult<User> findAllUser() {
-        System.out.println(userRepository.findAll());
+    public CompletableFuture<ResponseEntity<ListResult<UserView>>> findAllUser(@ApiParam(value = "다음 페이지 커서") @RequestParam(required = false) String cursor,
+                                                                               @ApiParam(value = "페이지 크기 (최대 100)", defaultValue = "20") @RequestParam(defaultValue = "20") int size,
+                                                                               @ApiParam(value = "응답 필드 (예: id,uid)") @RequestParam(required = false) String fields) {
+        int pageSize = size < 1 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        long afterId = PageCursor.decode(cursor);
+        UserFields selected = UserFields.parse(fields);
+
+        return requestExecutor.submit(() -> {
+            List<UserView> users = userService.findPage(afterId, pageSize);
+
+            // 요청한 크기만큼 채워졌을 때만 다음 페이지가 있을 수 있다.
+            String nextCursor = users.size() < pageSize ? null : PageCursor.encode(users.get(users.size() - 1).getId());
+            // ETag가 If-None-Match와 같으면 스프링이 본문을 직렬화하지 않고 304를 응답한다.
+            return ResponseEntity.ok()
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .eTag(UserVersion.listETag(users, nextCursor, selected))
+                    .lastModified(UserVersion.listLastModified(users))
+                    .body(responseService.getListResult(select(users, selected), nextCursor));
+        });
+    }
 
-        return responseService.getListResult(userRepository.findAll());
+    @ApiOperation(value = "회원 전체 스트리밍 조회", notes = "모든 회원을 한 줄에 하나씩 JSON(NDJSON)으로 내려준다.")
+    @GetMapping(value = "/users/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllUser(@ApiParam(value = "응답 필드 (예: id,uid)") @RequestParam(required = false) String fields,
+                              HttpServletResponse response) throws IOException {
+        UserFields selected = UserFields.parse(fields);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        // 한 건씩 바로 응답 스트림에 쓰므로 회원 수와 관계없이 메모리 사용량이 일정하다.
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(response.getOutputStream())) {
+            userService.streamAll(user -> {
+                try {
+                    writer.write(user.select(selected));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @ApiOperation(value = "회원 검색", notes = "uid 또는 회원이름이 검색어와 같거나, 검색어로 시작하거나, 검색어를 포함하는(3글자 이상) 회원을 순서대로 조회한다.")
+    @GetMapping(value = "/users/search")
+    public ListResult<UserView> search(@ApiParam(value = "검색어 (대소문자 구분 없음)", required = true) @RequestParam String q,
+                                       @ApiParam(value = "최대 결과 수 (최대 100)", defaultValue = "20") @RequestParam(defaultValue = "20") int limit,
+                                       @ApiParam(value = "응답 필드 (예: id,uid)") @RequestParam(required = false) String fields) {
+        int size = limit < 1 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // 메모리 색인만 사용하므로 DB 작업 실행기(requestExecutor)를 거치지 않는다.
+        List<UserView> users = userSearchIndex.search(q.trim(), size);
+        return responseService.getListResult(select(users, UserFields.parse(fields)));
     }
 
     @ApiOperation(value = "회원 단건 조회", notes = "userId로 회원을 조회한다.")
     @GetMapping(value = "/users/{id}")
-    public SingleResult<User> findById(@ApiParam(value = "회원ID", required = true) @PathVariable Long id,
-                                       @ApiParam(value = "언어", defaultValue = "ko") @RequestParam String lang) {
-        System.out.println(userRepository.findById(id));
-
-        return responseService.getSingleResult(userRepository.findById(id).orElseThrow(CUserNotFoundException::new));
+    public CompletableFuture<ResponseEntity<SingleResult<UserView>>> findById(@ApiParam(value = "회원ID", required = true) @PathVariable Long id,
+                                                                              @ApiParam(value = "언어 (없으면 Accept-Language)", defaultValue = "ko") @RequestParam(required = false) String lang,
+                                                                              @ApiParam(value = "응답 필드 (예: id,uid)") @RequestParam(required = false) String fields,
+                                                                              HttpServletRequest request) {
+        UserFields selected = UserFields.parse(fields);
+        String format = ConditionalRequest.formatSuffix(request);
+        // 조건부 요청이면 버전 정보만으로 304를 판단한다. 버전 캐시에 있으면 DB 작업 없이 바로 응답한다.
+        boolean conditional = ConditionalRequest.isConditional(request);
+        UserVersion cached = conditional ? userService.findCachedVersion(id) : null;
+        if (cached != null && ConditionalRequest.isNotModified(request, cached.getETag(selected, format), cached.getLastModified())) {
+            return CompletableFuture.completedFuture(notModified(cached, selected, format));
+        }
+
+        return requestExecutor.submit(() -> {
+            if (conditional && cached == null) {
+                UserVersion version = userService.findVersion(id).orElseThrow(() -> CUserNotFoundException.INSTANCE);
+                if (ConditionalRequest.isNotModified(request, version.getETag(selected, format), version.getLastModified())) {
+                    return notModified(version, selected, format);
+                }
+            }
+            User user = userService.findById(id).orElseThrow(() -> CUserNotFoundException.INSTANCE);
+            return withVersion(ResponseEntity.ok(), UserVersion.of(user), selected, format)
+                    .body(responseService.getSingleResult(UserView.of(user).select(selected)));
+        });
     }
 
     @ApiOperation(value = "회원 등록", notes = "회원을 등록한다.")
     @PostMapping(value = "/users")
-    public SingleResult<User> save(@ApiParam(value = "회원아이디", required = true) @RequestParam String uid,
-                                  @ApiParam(value = "회원이름", required = true) @RequestParam String username) {
+    public CompletableFuture<SingleResult<UserView>> save(@ApiParam(value = "회원아이디", required = true) @RequestParam String uid,
+                                                          @ApiParam(value = "회원이름", required = true) @RequestParam String username) {
         User user = User.builder()
                 .uid(uid)
                 .username(username)
                 .build();
 
-        return responseService.getSingleResult(userRepository.save(user));
+        return requestExecutor.submit(() -> {
+            User saved = userRepository.save(user);
+            eventPublisher.publishEvent(UserChangedEvent.created(saved));
+            return responseService.getSingleResult(UserView.of(saved));
+        });
     }
 
-    @ApiOperation(value = "회원 수정", notes = "userId로 회원정보를 수정한다.")
+    @ApiOperation(value = "회원 수정", notes = "userId로 회원정보를 수정한다. If-Match 헤더에 ETag를 주면 그 사이 다른 수정이 없을 때만 수정한다.")
     @PutMapping(value = "/users/{id}")
-    public SingleResult<User> update(@ApiParam(value = "회원ID", required = true) @PathVariable Long id,
-                                     @ApiParam(value = "회원아이디", required = true) @RequestParam String uid,
-                                     @ApiParam(value = "회원이름", required = true) @RequestParam String username) {
-        User user = User.builder()
-                .id(id)
-                .uid(uid)
-                .username(username)
-                .build();
-
-        return responseService.getSingleResult(userRepository.save(user));
+    public CompletableFuture<ResponseEntity<SingleResult<UserView>>> update(@ApiParam(value = "회원ID", required = true) @PathVariable Long id,
+                                                                            @ApiParam(value = "회원아이디", required = true) @RequestParam String uid,
+                                                                            @ApiParam(value = "회원이름", required = true) @RequestParam String username,
+                                                                            @ApiParam(value = "조회 시 받은 ETag") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                            HttpServletRequest request) {
+        String format = ConditionalRequest.formatSuffix(request);
+        return requestExecutor.submit(() -> {
+            User updated = userService.update(id, uid, username, ifMatch);
+            eventPublisher.publishEvent(UserChangedEvent.updated(updated));
+            return withVersion(ResponseEntity.ok(), UserVersion.of(updated), UserFields.ALL, format)
+                    .body(responseService.getSingleResult(UserView.of(updated)));
+        });
     }
 
     @ApiOperation(value = "회원 삭제", notes = "userId로 회원를 삭제한다.")
     @DeleteMapping(value = "/users/{id}")
-    public CommonResult delete(@ApiParam(value = "회원ID", required = true) @PathVariable Long id) {
-        userRepository.deleteById(id);
+    public CompletableFuture<CommonResult> delete(@ApiParam(value = "회원ID", required = true) @PathVariable Long id) {
+        return requestExecutor.submit(() -> {
+            userRepository.deleteById(id);
+            eventPublisher.publishEvent(UserChangedEvent.deleted(id));
 
-        return responseService.getSuccessResult();
+            return responseService.getSuccessResult();
+        });
     }
 
-}
\ No newline at end of file
+    private static <T> ResponseEntity<T> notModified(UserVersion version, UserFields fields, String format) {
+        return withVersion(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version, fields, format).build();
+    }
+
+    private static ResponseEntity.BodyBuilder withVersion(ResponseEntity.BodyBuilder builder, UserVersion version, UserFields fields, String format) {
+        builder.varyBy(HttpHeaders.ACCEPT).eTag(version.getETag(fields, format));
+        if (version.getLastModified() >= 0) {
+            builder.lastModified(version.getLastModified());
+        }
+        return builder;
+    }
+
+    private static List<UserView> select(List<UserView> users, UserFields fields) {
+        if (fields.isAll()) {
+            return users;
+        }
+        List<UserView> selected = new ArrayList<>(users.size());
+        for (UserView user : users) {
+            selected.add(user.select(fields));
+        }
+        return selected;
+    }
+}
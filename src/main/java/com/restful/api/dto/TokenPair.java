@@ -0,0 +1,16 @@
+package com.restful.api.dto;
+
+import lombok.Getter;
+
+// 로그인, 토큰 재발급 응답 (접근 토큰 + 재발급 토큰)
+@Getter
+public class TokenPair {
+
+    private final String accessToken;
+    private final String refreshToken;
+
+    public TokenPair(String accessToken, String refreshToken) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+    }
+}
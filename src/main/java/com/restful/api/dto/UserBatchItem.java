@@ -0,0 +1,16 @@
+package com.restful.api.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 대량 등록/수정/삭제 요청의 한 건 (등록은 uid, username / 수정은 id, uid, username / 삭제는 id)
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserBatchItem {
+
+    private Long id;
+    private String uid;
+    private String username;
+}
@@ -0,0 +1,38 @@
+package com.restful.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+// 대량 처리 요청 한 건에 대한 처리 결과, index는 요청 본문에서의 순서(0부터)
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserBatchItemResult {
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, NOT_FOUND, INVALID, DUPLICATE, FAILED
+    }
+
+    private final int index;
+    private final Long id;
+    private final Status status;
+    private final String message;
+
+    private UserBatchItemResult(int index, Long id, Status status, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static UserBatchItemResult success(int index, Long id, Status status) {
+        return new UserBatchItemResult(index, id, status, null);
+    }
+
+    public static UserBatchItemResult failure(int index, Long id, Status status, String message) {
+        return new UserBatchItemResult(index, id, status, message);
+    }
+
+    public boolean isSuccess() {
+        return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+    }
+}
@@ -0,0 +1,38 @@
+package com.restful.api.dto;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 대량 처리 요청 전체의 결과 : 건별 결과와 처리량 통계
+@Getter
+public class UserBatchResult {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private int chunks;
+    private long elapsedMillis;
+    private double itemsPerSecond;
+    private final List<UserBatchItemResult> items = new ArrayList<>();
+
+    public void add(UserBatchItemResult item) {
+        items.add(item);
+        total++;
+        if (item.isSuccess()) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+    }
+
+    public void chunkCompleted() {
+        chunks++;
+    }
+
+    public void finish(long elapsedNanos) {
+        this.elapsedMillis = elapsedNanos / 1_000_000L;
+        this.itemsPerSecond = elapsedNanos == 0 ? 0 : total * 1_000_000_000d / elapsedNanos;
+    }
+}
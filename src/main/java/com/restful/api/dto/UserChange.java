@@ -0,0 +1,44 @@
+package com.restful.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.restful.api.entity.User;
+import com.restful.api.event.UserChangedEvent;
+import lombok.Getter;
+
+/*
+ * 회원 변경 피드(/v1/users/changes)의 항목
+ * seq는 이 노드에서 발행한 변경의 일련번호이며, 클라이언트는 마지막으로 받은 seq부터 이어서 받는다.
+ * RESET은 요청한 seq가 버퍼에서 이미 밀려났거나(서버 재시작 포함) 알 수 없는 경우이다.
+ * 이때 클라이언트는 회원 목록을 다시 조회한 뒤 RESET의 seq부터 이어서 받는다.
+ */
+
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserChange {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, RESET
+    }
+
+    private final long seq;
+    private final Type type;
+    private final Long id;
+    private final UserView user; // 삭제, RESET이면 null
+
+    public UserChange(long seq, Type type, Long id, UserView user) {
+        this.seq = seq;
+        this.type = type;
+        this.id = id;
+        this.user = user;
+    }
+
+    public static UserChange of(long seq, UserChangedEvent event) {
+        User user = event.getUser();
+        return new UserChange(seq, Type.valueOf(event.getType().name()), event.getUserId(),
+                user == null ? null : UserView.of(user));
+    }
+
+    public static UserChange reset(long seq) {
+        return new UserChange(seq, Type.RESET, null, null);
+    }
+}
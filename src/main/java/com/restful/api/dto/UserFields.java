@@ -0,0 +1,57 @@
+package com.restful.api.dto;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * 응답에 포함할 회원 필드 선택 (?fields=id,uid)
+ * 지정하지 않거나 알 수 없는 이름만 있으면 모든 필드를 내려준다.
+ * 선택한 필드에 따라 응답 본문이 달라지므로 ETag에도 선택 정보를 붙인다.
+ */
+
+public final class UserFields {
+
+    static final int ID = 1;
+    static final int UID = 1 << 1;
+    static final int USERNAME = 1 << 2;
+    static final int VERSION = 1 << 3;
+    static final int UPDATED_AT = 1 << 4;
+
+    private static final List<String> NAMES = Arrays.asList("id", "uid", "username", "version", "updatedAt");
+    private static final int ALL_MASK = (1 << NAMES.size()) - 1;
+
+    public static final UserFields ALL = new UserFields(ALL_MASK);
+
+    private final int mask;
+
+    private UserFields(int mask) {
+        this.mask = mask;
+    }
+
+    public static UserFields parse(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return ALL;
+        }
+        int mask = 0;
+        for (String name : fields.split(",")) {
+            int index = NAMES.indexOf(name.trim());
+            if (index >= 0) {
+                mask |= 1 << index;
+            }
+        }
+        return mask == 0 || mask == ALL_MASK ? ALL : new UserFields(mask);
+    }
+
+    public boolean isAll() {
+        return mask == ALL_MASK;
+    }
+
+    boolean has(int field) {
+        return (mask & field) != 0;
+    }
+
+    // ETag 뒤에 붙일 선택 정보, 전체 필드이면 붙이지 않는다.
+    public String etagSuffix() {
+        return isAll() ? "" : "-f" + Integer.toHexString(mask);
+    }
+}
@@ -0,0 +1,81 @@
+package com.restful.api.dto;
+
+import com.restful.api.entity.User;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+// 회원의 버전 정보 (ETag, Last-Modified 계산용), 엔티티 전체를 읽지 않고 이 값만 조회/캐시할 수 있다.
+@Getter
+public class UserVersion {
+
+    private final Long id;
+    private final long version;
+    private final long lastModified; // epoch millis, 알 수 없으면 -1
+
+    public UserVersion(Long id, Long version, Instant updatedAt) {
+        this.id = id;
+        this.version = version == null ? 0L : version;
+        this.lastModified = updatedAt == null ? -1L : updatedAt.toEpochMilli();
+    }
+
+    public static UserVersion of(User user) {
+        return new UserVersion(user.getId(), user.getVersion(), user.getUpdatedAt());
+    }
+
+    // 강한(strong) ETag : "id-version", 본문을 직렬화하지 않고 계산한다.
+    public String getETag() {
+        return getETag(UserFields.ALL, "");
+    }
+
+    // 일부 필드만 선택했거나 JSON이 아닌 형식의 응답은 본문이 다르므로 선택 정보와 형식을 붙인다 : "id-version-f3-cbor"
+    // 강한 ETag가 있는 응답은 톰캣이 압축하지 않으므로 Content-Encoding은 항상 같다. (단건 응답은 압축 최소 크기보다 작다)
+    public String getETag(UserFields fields, String formatSuffix) {
+        return "\"" + id + "-" + version + fields.etagSuffix() + formatSuffix + "\"";
+    }
+
+    // If-Match 헤더의 ETag 중 하나라도 이 회원의 현재 버전이면 true (선택 필드와 무관, 헤더가 없으면 true)
+    public boolean matchesIfMatch(String ifMatch) {
+        if (ifMatch == null) {
+            return true;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/") || tag.length() < 2) { // If-Match는 강한 비교만 허용한다.
+                continue;
+            }
+            String[] parts = tag.substring(1, tag.length() - 1).split("-");
+            if (parts.length >= 2 && parts[0].equals(String.valueOf(id)) && parts[1].equals(String.valueOf(version))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 목록 응답의 약한(weak) ETag : 포함된 회원의 id, version과 다음 커서, 선택 필드로 계산한다.
+    // 형식(JSON, CBOR ...)이나 압축 여부가 달라도 같은 회원 목록이면 같은 값이며, 약한 ETag이므로 톰캣이 압축할 수 있다.
+    public static String listETag(List<UserView> users, String nextCursor, UserFields fields) {
+        long hash = 1125899906842597L;
+        for (UserView user : users) {
+            hash = 31 * hash + user.getId();
+            hash = 31 * hash + (user.getVersion() == null ? 0L : user.getVersion());
+        }
+        hash = 31 * hash + (nextCursor == null ? 0 : nextCursor.hashCode());
+        return "W/\"l" + users.size() + "-" + Long.toHexString(hash) + fields.etagSuffix() + "\"";
+    }
+
+    // 목록 응답의 Last-Modified : 포함된 회원 중 가장 최근 수정 시각
+    public static long listLastModified(List<UserView> users) {
+        long lastModified = -1L;
+        for (UserView user : users) {
+            if (user.getUpdatedAt() != null) {
+                lastModified = Math.max(lastModified, user.getUpdatedAt().toEpochMilli());
+            }
+        }
+        return lastModified;
+    }
+}
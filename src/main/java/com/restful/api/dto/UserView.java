@@ -0,0 +1,51 @@
+package com.restful.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.restful.api.entity.User;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/*
+ * 회원 조회 응답용 DTO
+ * User 엔티티는 UserDetails를 구현하고 있어서 그대로 내려주면 authorities, password, isAccount* 등 불필요한 값까지 직렬화된다.
+ * 목록 조회는 JPQL 생성자 표현식(select new ...)으로 필요한 컬럼만 바로 이 객체로 읽으므로,
+ * 엔티티 생성과 영속성 컨텍스트 관리(변경 감지용 스냅샷) 비용이 들지 않는다.
+ * select()로 필요한 필드만 남길 수 있으며, 값이 없는(null) 필드는 응답에 포함하지 않는다.
+ */
+
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserView {
+
+    private final Long id;
+    private final String uid;
+    private final String username;
+    private final Long version;
+    private final Instant updatedAt;
+
+    public UserView(Long id, String uid, String username, Long version, Instant updatedAt) {
+        this.id = id;
+        this.uid = uid;
+        this.username = username;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    public static UserView of(User user) {
+        return new UserView(user.getId(), user.getUid(), user.getUsername(), user.getVersion(), user.getUpdatedAt());
+    }
+
+    // 선택한 필드만 남긴 복사본을 반환한다.
+    public UserView select(UserFields fields) {
+        if (fields.isAll()) {
+            return this;
+        }
+        return new UserView(
+                fields.has(UserFields.ID) ? id : null,
+                fields.has(UserFields.UID) ? uid : null,
+                fields.has(UserFields.USERNAME) ? username : null,
+                fields.has(UserFields.VERSION) ? version : null,
+                fields.has(UserFields.UPDATED_AT) ? updatedAt : null);
+    }
+}
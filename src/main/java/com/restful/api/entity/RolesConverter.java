@@ -0,0 +1,32 @@
+package com.restful.api.entity;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * 회원 권한 목록 <-> 컬럼 값("ROLE_USER,ROLE_ADMIN") 변환
+ * 권한을 별도 테이블(@ElementCollection)에 두면 회원을 읽을 때마다 조인이나 추가 조회가 생기고 INSERT도 배치로 묶이지 않으므로,
+ * 회원 테이블의 한 컬럼에 쉼표로 구분해서 저장한다.
+ */
+
+@Converter
+public class RolesConverter implements AttributeConverter<List<String>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<String> roles) {
+        return roles == null || roles.isEmpty() ? null : String.join(",", roles);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String column) {
+        if (column == null || column.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> roles = new ArrayList<>();
+        Collections.addAll(roles, column.split(","));
+        return roles;
+    }
+}
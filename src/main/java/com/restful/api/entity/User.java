@@ -1,11 +1,18 @@
 package com.restful.api.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import javax.persistence.*;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Builder // 빌더 패턴을 사용한다.
 @Data // @Getter, @Setter, @ToString 등이 들어있다.
@@ -21,49 +28,70 @@ public class User implements UserDetails {
      * IDENTITY : 기본 키 생성 방식 자체를 데이터베이스에 위임하는 방식, 데이터베이스에 의존적이다. (주로 MySQL에서 사용)
      * SEQUENCE : 데이터베이스의 시퀀스를 이용해 기본 키를 생성 (주로 오라클에서 사용)
      * TABLE : 별도의 키를 생성해주는 테이블(번호를 취할 목적으로 만들어진)을 이용하는 방식
+     *
+     * IDENTITY는 INSERT를 실행해야 id를 알 수 있으므로 하이버네이트가 INSERT를 JDBC 배치로 묶지 못한다.
+     * 그래서 시퀀스에서 allocationSize 만큼 id를 미리 할당받는(pooled) SEQUENCE 방식을 사용한다.
+     * 시퀀스를 지원하지 않는 MySQL에서는 하이버네이트가 같은 이름의 테이블로 시퀀스를 흉내낸다.
+     * 기존 DB는 시퀀스(테이블)를 max(id)보다 크게 시작해야 하므로 배포 전에 db/user_seq-*.sql을 실행한다.
      */
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
+    // unique 제약조건으로 인덱스가 만들어지므로 uid 조회(로그인, 가입 중복 확인)는 인덱스로 처리된다.
     @Column(nullable = false, unique = true, length = 30)
     private String uid;
 
     @Column(nullable = false, length = 100)
     private String username;
 
+    // 암호화된 비밀번호, 가입(signup)하지 않고 관리 API로 등록한 회원은 null이며 로그인할 수 없다.
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Column(length = 100)
+    private String password;
+
+    // 회원이 가지고 있는 권한 목록 (ex. ROLE_USER)
+    @Convert(converter = RolesConverter.class)
+    @Column(length = 100)
+    @Builder.Default
+    private List<String> roles = new ArrayList<>();
+
+    // 낙관적 잠금(optimistic lock)용 버전, 수정될 때마다 하이버네이트가 1씩 올린다. ETag 값으로도 사용한다.
+    @Version
+    private Long version;
+
+    // 마지막으로 저장된 시각, Last-Modified 헤더 값으로 사용한다.
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     /*
      * 스프링 시큐리티의 보안 적용을 위해서 User 엔티티에 UserDetails 클래스를 구현해 추가 정보를 재정의한다.
-     * roles는 회원이 가지고 있는
-
+     * roles는 회원이 가지고 있는 권한 목록이며, 스프링 시큐리티가 사용하는 GrantedAuthority로 변환해서 반환한다.
+     * 계정 만료, 잠금 등은 사용하지 않으므로 모두 true를 반환한다.
      */
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return null;
-    }
-
-    @Override
-    public String getPassword() {
-        return null;
+        return roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
     }
 
     @Override
     public boolean isAccountNonExpired() {
-        return false;
+        return true;
     }
 
     @Override
     public boolean isAccountNonLocked() {
-        return false;
+        return true;
     }
 
     @Override
     public boolean isCredentialsNonExpired() {
-        return false;
+        return true;
     }
 
     @Override
     public boolean isEnabled() {
-        return false;
+        return true;
     }
 }
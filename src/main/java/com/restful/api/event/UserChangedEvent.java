@@ -0,0 +1,40 @@
+package com.restful.api.event;
+
+import com.restful.api.entity.User;
+import lombok.Getter;
+
+/*
+ * 회원 정보가 생성/수정/삭제 되었음을 알리는 이벤트
+ * UserController의 저장/수정/삭제 후 ApplicationEventPublisher로 발행하며,
+ * 회원 정보를 들고 있는 캐시들은 @EventListener로 이 이벤트를 받아 해당 회원의 항목을 무효화한다.
+ */
+
+@Getter
+public class UserChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Long userId;
+    private final User user; // 삭제 이벤트이면 null
+
+    private UserChangedEvent(Type type, Long userId, User user) {
+        this.type = type;
+        this.userId = userId;
+        this.user = user;
+    }
+
+    public static UserChangedEvent created(User user) {
+        return new UserChangedEvent(Type.CREATED, user.getId(), user);
+    }
+
+    public static UserChangedEvent updated(User user) {
+        return new UserChangedEvent(Type.UPDATED, user.getId(), user);
+    }
+
+    public static UserChangedEvent deleted(Long userId) {
+        return new UserChangedEvent(Type.DELETED, userId, null);
+    }
+}
@@ -1,7 +1,47 @@
 package com.restful.api.repository;
 
+import com.restful.api.dto.UserVersion;
+import com.restful.api.dto.UserView;
 import com.restful.api.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+// 선언한 조회 메서드도 읽기 전용 트랜잭션으로 실행해서 replica에서 읽을 수 있게 한다. (ReplicaRoutingDataSource)
+// save, delete 등 JpaRepository의 쓰기 메서드는 구현체(SimpleJpaRepository)의 @Transactional을 그대로 따른다.
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    // uid 컬럼은 unique 제약조건이 있으므로 인덱스로 조회된다.
+    Optional<User> findByUid(String uid);
+
+    // uid 필터(UserUidFilter)를 만들 때 uid 인덱스만 읽는다. (반드시 트랜잭션 안에서 사용)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.uid from User u")
+    Stream<String> streamAllUids();
+
+    // 엔티티를 읽지 않고 버전 정보만 조회한다. (조건부 요청 304 확인용)
+    @Query("select new com.restful.api.dto.UserVersion(u.id, u.version, u.updatedAt) from User u where u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") Long id);
+
+    // 키셋 페이징 : id > cursor 조건으로 PK 인덱스를 타므로 offset 방식과 달리 뒤쪽 페이지도 비용이 일정하다.
+    // 엔티티 대신 응답에 필요한 컬럼만 UserView로 바로 읽는다.
+    @Query("select new com.restful.api.dto.UserView(u.id, u.uid, u.username, u.version, u.updatedAt) from User u where u.id > :afterId order by u.id")
+    List<UserView> findViewsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 전체 회원을 한 번에 List로 올리지 않고 커서로 한 건씩 읽는다. (반드시 트랜잭션 안에서 사용)
+    // 엔티티가 아니므로 영속성 컨텍스트에 쌓이지 않는다.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.restful.api.dto.UserView(u.id, u.uid, u.username, u.version, u.updatedAt) from User u order by u.id")
+    Stream<UserView> streamAllViews();
 }
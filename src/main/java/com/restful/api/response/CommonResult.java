@@ -1,19 +1,46 @@
 package com.restful.api.response;
 
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.swagger.annotations.ApiModelProperty;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
 
+// 만든 뒤에는 값을 바꿀 수 없으므로 data가 없는 결과(성공, 실패 템플릿)는 인스턴스 하나를 여러 요청이 함께 사용한다.
+// 하위 클래스는 각자 ResultSerializer의 하위 클래스를 등록한다. (SingleResult, ListResult)
 @Getter
-@Setter
+@JsonSerialize(using = ResultSerializer.class)
 public class CommonResult {
 
     @ApiModelProperty(value = "응답 성공여부 : true/false")
-    private boolean success;
+    private final boolean success;
 
     @ApiModelProperty(value = "응답 코드 번호 : >= 0 정상, < 0 비정상")
-    private int code;
+    private final int code;
 
     @ApiModelProperty(value = "응답 메시지")
-    private String message;
+    private final String message;
+
+    // 미리 인코딩해 둔 message, 없으면 직렬화할 때 인코딩한다.
+    @Getter(AccessLevel.NONE)
+    private final SerializableString encodedMessage;
+
+    public CommonResult(boolean success, int code, String message) {
+        this.success = success;
+        this.code = code;
+        this.message = message;
+        this.encodedMessage = null;
+    }
+
+    // 미리 인코딩한 message로 만든다.
+    CommonResult(boolean success, int code, SerializableString message) {
+        this.success = success;
+        this.code = code;
+        this.message = message.getValue();
+        this.encodedMessage = message;
+    }
+
+    SerializableString getEncodedMessage() {
+        return encodedMessage;
+    }
 }
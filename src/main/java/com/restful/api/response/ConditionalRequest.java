@@ -0,0 +1,93 @@
+package com.restful.api.response;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+/*
+ * 조건부 요청(If-None-Match, If-Modified-Since) 헤더를 확인하는 메서드 모음
+ * 응답 본문을 만들기 전에 304 여부를 판단할 때 사용한다. (If-Match는 UserVersion.matchesIfMatch)
+ */
+
+public final class ConditionalRequest {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private ConditionalRequest() {
+    }
+
+    // Accept 헤더로 정해지는 응답 형식의 ETag 구분자 : JSON은 붙이지 않고, CBOR은 -cbor, Smile은 -smile
+    // 컨텐츠 협상과 같이 품질(q) 순으로 보며, */*는 첫 번째 메시지 컨버터인 JSON으로 응답된다.
+    public static String formatSuffix(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "";
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "-cbor";
+            }
+            if (mediaType.isCompatibleWith(SMILE)) {
+                return "-smile";
+            }
+        }
+        return "";
+    }
+
+    // If-None-Match 또는 If-Modified-Since 헤더가 있는지 확인한다.
+    public static boolean isConditional(HttpServletRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    // 클라이언트가 가진 응답이 최신이면 true (304). If-None-Match가 있으면 If-Modified-Since는 보지 않는다.
+    public static boolean isNotModified(HttpServletRequest request, String etag, long lastModifiedMillis) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matches(ifNoneMatch, etag);
+        }
+        if (lastModifiedMillis < 0) {
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // HTTP 날짜는 초 단위이므로 밀리초는 버리고 비교한다.
+        return ifModifiedSince >= 0 && (lastModifiedMillis / 1000 * 1000) <= ifModifiedSince;
+    }
+
+    // "a", W/"b", * 형식의 목록 중 하나라도 일치하는지 확인한다. (약한 비교)
+    private static boolean matches(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
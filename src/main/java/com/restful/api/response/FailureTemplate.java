@@ -0,0 +1,21 @@
+package com.restful.api.response;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import lombok.Getter;
+
+// 실패 응답의 code, message 쌍, 메시지 파일을 읽을 때 미리 만들어 두고 재사용한다.
+@Getter
+public final class FailureTemplate {
+
+    private final int code;
+    private final String message;
+
+    // 이 템플릿의 실패 결과, 모든 요청이 같은 인스턴스를 사용한다.
+    private final CommonResult result;
+
+    public FailureTemplate(int code, String message) {
+        this.code = code;
+        this.message = message;
+        this.result = new CommonResult(false, code, new SerializedString(message));
+    }
+}
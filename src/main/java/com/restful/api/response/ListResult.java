@@ -1,13 +1,23 @@
 package com.restful.api.response;
 
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Getter;
-import lombok.Setter;
 
 import java.util.List;
 
 @Getter
-@Setter
+@JsonSerialize(using = ResultSerializer.Multiple.class)
 public class ListResult<T> extends CommonResult {
 
-    private List<T> list;
+    private final List<T> list;
+
+    // 다음 페이지 조회에 사용하는 커서, 마지막 페이지이면 내려가지 않는다. (ResultSerializer.Multiple)
+    private final String nextCursor;
+
+    ListResult(boolean success, int code, SerializableString message, List<T> list, String nextCursor) {
+        super(success, code, message);
+        this.list = list;
+        this.nextCursor = nextCursor;
+    }
 }
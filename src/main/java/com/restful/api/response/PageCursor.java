@@ -0,0 +1,45 @@
+package com.restful.api.response;
+
+import com.restful.api.advice.exception.CInvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+ * 키셋(keyset) 페이징에 사용하는 커서
+ * 마지막으로 내려준 회원의 id를 Base64(URL safe)로 감싸서 클라이언트에는 의미 없는(opaque) 문자열로 전달한다.
+ * 클라이언트는 받은 커서를 그대로 다음 요청에 넘기기만 하면 되므로, 나중에 정렬 키가 바뀌어도 API는 그대로 유지된다.
+ */
+
+public final class PageCursor {
+
+    private static final String PREFIX = "id:";
+
+    private PageCursor() {
+    }
+
+    // 마지막 id를 커서 문자열로 변환한다.
+    public static String encode(Long lastId) {
+        if (lastId == null) {
+            return null;
+        }
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    // 커서 문자열에서 마지막 id를 꺼낸다. 커서가 없으면 처음부터 조회한다.
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw CInvalidCursorException.INSTANCE;
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) { // NumberFormatException 포함
+            throw new CInvalidCursorException(cursor, e);
+        }
+    }
+}
@@ -1,48 +1,51 @@
 package com.restful.api.response;
 
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
+/*
+ * 결과는 모두 변경할 수 없으며, data가 없는 결과(성공, 실패 템플릿)는 미리 만들어 둔 인스턴스를 반환한다.
+ * data가 있는 결과도 성공 message는 미리 인코딩한 값을 사용하므로 직렬화할 때 다시 인코딩하지 않는다. (ResultSerializer)
+ */
+
 @Component
 public class ResponseService {
 
+    private static final SerializableString SUCCESS_MESSAGE = new SerializedString(CommonResponse.SUCCESS.getMessage());
+
+    private static final CommonResult SUCCESS_RESULT =
+            new CommonResult(true, CommonResponse.SUCCESS.getCode(), SUCCESS_MESSAGE);
+
     // 단일 결과를 처리하는 메서드
     public <T> SingleResult<T> getSingleResult(T data) {
-        SingleResult<T> result = new SingleResult<>();
-        result.setData(data);
-        setSuccessResult(result);
-        return result;
+        return new SingleResult<>(true, CommonResponse.SUCCESS.getCode(), SUCCESS_MESSAGE, data);
     }
 
     // 다중 결과를 처리하는 메서드
     public <T> ListResult<T> getListResult(List<T> list) {
-        ListResult<T> result = new ListResult<>();
-        result.setList(list);
-        setSuccessResult(result);
-        return result;
+        return getListResult(list, null);
+    }
+
+    // 커서 기반 다중 결과를 처리하는 메서드
+    public <T> ListResult<T> getListResult(List<T> list, String nextCursor) {
+        return new ListResult<>(true, CommonResponse.SUCCESS.getCode(), SUCCESS_MESSAGE, list, nextCursor);
     }
 
-    // 성공 결과를 처리하는 메서드
+    // 성공 결과를 처리하는 메서드, 공유 인스턴스이므로 값을 바꿀 수 없다.
     public CommonResult getSuccessResult() {
-        CommonResult result = new CommonResult();
-        setSuccessResult(result);
-        return result;
+        return SUCCESS_RESULT;
     }
 
     // 실패 결과를 처리하는 메서드
     public CommonResult getFailResult(int code, String message) {
-        CommonResult result = new CommonResult();
-        result.setSuccess(false);
-        result.setCode(code);
-        result.setMessage(message);
-        return result;
+        return new CommonResult(false, code, message);
     }
 
-    // 결과 모델에 API 요청 성공 데이터를 세팅하는 메서드
-    private void setSuccessResult(CommonResult result) {
-        result.setSuccess(true);
-        result.setCode(CommonResponse.SUCCESS.getCode());
-        result.setMessage(CommonResponse.SUCCESS.getMessage());
+    // 미리 만들어 둔 실패 템플릿으로 실패 결과를 처리하는 메서드, 공유 인스턴스이므로 값을 바꿀 수 없다.
+    public CommonResult getFailResult(FailureTemplate failure) {
+        return failure.getResult();
     }
 }
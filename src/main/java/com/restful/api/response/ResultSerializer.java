@@ -0,0 +1,90 @@
+package com.restful.api.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/*
+ * CommonResult와 하위 결과 직렬화
+ * 필드 이름과 자주 쓰는 메시지(성공, 실패 템플릿)는 SerializedString으로 미리 인코딩해 두어
+ * 응답마다 리플렉션으로 getter를 찾거나 문자열을 다시 인코딩하지 않고 바이트를 그대로 복사한다.
+ * JSON 외에 CBOR, Smile 생성기에서도 그대로 동작한다.
+ * 출력 형식(필드 이름, 순서)은 기존 빈 직렬화와 같다.
+ * 공통 필드(success, code, message)는 여기서 쓰고, 하위 결과의 필드는 타입별 하위 클래스가 writeFields에서 쓴다.
+ * CommonResult의 하위 클래스를 추가하면 하위 serializer를 만들어 @JsonSerialize로 등록한다.
+ */
+
+public class ResultSerializer<T extends CommonResult> extends StdSerializer<T> {
+
+    private static final SerializableString SUCCESS = new SerializedString("success");
+    private static final SerializableString CODE = new SerializedString("code");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString DATA = new SerializedString("data");
+    private static final SerializableString LIST = new SerializedString("list");
+    private static final SerializableString NEXT_CURSOR = new SerializedString("nextCursor");
+
+    @SuppressWarnings("unchecked")
+    public ResultSerializer() {
+        this((Class<T>) CommonResult.class);
+    }
+
+    protected ResultSerializer(Class<?> type) {
+        super(type, false);
+    }
+
+    @Override
+    public final void serialize(T result, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(result);
+        gen.writeFieldName(SUCCESS);
+        gen.writeBoolean(result.isSuccess());
+        gen.writeFieldName(CODE);
+        gen.writeNumber(result.getCode());
+        gen.writeFieldName(MESSAGE);
+        SerializableString encoded = result.getEncodedMessage();
+        if (encoded != null) {
+            gen.writeString(encoded);
+        } else {
+            gen.writeString(result.getMessage()); // null이면 null을 쓴다.
+        }
+        writeFields(result, gen, provider);
+        gen.writeEndObject();
+    }
+
+    // 공통 필드 다음에 하위 결과의 필드를 쓴다.
+    protected void writeFields(T result, JsonGenerator gen, SerializerProvider provider) throws IOException {
+    }
+
+    public static final class Single extends ResultSerializer<SingleResult<?>> {
+
+        public Single() {
+            super(SingleResult.class);
+        }
+
+        @Override
+        protected void writeFields(SingleResult<?> result, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeFieldName(DATA);
+            provider.defaultSerializeValue(result.getData(), gen);
+        }
+    }
+
+    public static final class Multiple extends ResultSerializer<ListResult<?>> {
+
+        public Multiple() {
+            super(ListResult.class);
+        }
+
+        @Override
+        protected void writeFields(ListResult<?> result, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeFieldName(LIST);
+            provider.defaultSerializeValue(result.getList(), gen);
+            if (result.getNextCursor() != null) {
+                gen.writeFieldName(NEXT_CURSOR);
+                gen.writeString(result.getNextCursor());
+            }
+        }
+    }
+}
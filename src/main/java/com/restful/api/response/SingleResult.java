@@ -1,11 +1,17 @@
 package com.restful.api.response;
 
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Getter;
-import lombok.Setter;
 
 @Getter
-@Setter
+@JsonSerialize(using = ResultSerializer.Single.class)
 public class SingleResult<T> extends CommonResult {
 
-    private T data;
+    private final T data;
+
+    SingleResult(boolean success, int code, SerializableString message, T data) {
+        super(success, code, message);
+        this.data = data;
+    }
 }
@@ -0,0 +1,326 @@
+package com.restful.api.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * 회원 uid, username 검색용 trigram 역색인 (대소문자 구분 없음)
+ * 회원마다 추가된 순서대로 문서 번호(doc)를 붙이고, trigram별로 doc 번호를 int 배열(posting)에 순서대로 쌓는다.
+ * 문자열 앞에 \0 두 개를 붙여서 색인하므로 "\0\0a", "\0ab" 같은 시작 위치 trigram으로 1~2글자 접두어도 찾을 수 있다.
+ *
+ * 검색은 세 단계로 한다.
+ * 1. 일치 : uid 또는 username이 질의와 같은 문서 => 0순위, 소문자로 바꾼 값별 문서 번호 목록에서 바로 찾는다.
+ * 2. 접두어 : 질의의 시작 위치 trigram을 모두 가진 문서 => 질의로 시작하면 1순위 (1단계에서 찾은 문서는 제외)
+ * 3. 부분 문자열 (3글자 이상) : 질의 안쪽 trigram을 모두 가진 문서 => 2순위, 2단계까지 limit을 채웠으면 하지 않는다.
+ * trigram이 모두 있어도 실제로 포함하지 않을 수 있으므로 원본 문자열로 다시 확인한다.
+ * 같은 순위에서는 일치한 필드가 짧을수록(질의에 가까울수록), 그다음 id가 작을수록 앞에 온다.
+ * 후보 수가 max-candidates를 넘으면 그 이후 후보는 보지 않으므로, 회원 수가 늘어나도 검색 시간은 일정 수준을 넘지 않는다.
+ * 후보는 추가된 순서대로 보기 때문에 0순위 문서가 잘리지 않도록 일치하는 문서는 후보 수와 관계없이 1단계에서 먼저 찾는다.
+ *
+ * 수정된 회원은 새 문서로 추가하고 이전 문서는 삭제 표시만 한다. 삭제 표시된 문서는 새로 만들 때 정리된다. (UserSearchIndex)
+ * 조회는 읽기 잠금을 공유하므로 서로 막지 않고, 추가/삭제만 쓰기 잠금을 잡는다.
+ */
+
+final class NgramIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // 순위가 높은(작은) 결과가 앞에 오도록 정렬하는 기준
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt((Hit hit) -> hit.rank)
+            .thenComparingInt(hit -> hit.length)
+            .thenComparingLong(hit -> hit.id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private String[] uids = new String[INITIAL_CAPACITY];
+    private String[] usernames = new String[INITIAL_CAPACITY];
+    private int docCount;
+    private final BitSet removed = new BitSet();
+    private final Map<Long, Integer> docByUserId = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<String, Postings> exact = new HashMap<>();
+
+    // 회원을 추가한다. 이미 있으면 이전 문서를 지우고 새 문서로 추가한다.
+    void put(long id, String uid, String username) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+            int doc = docCount++;
+            if (doc == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                uids = Arrays.copyOf(uids, capacity);
+                usernames = Arrays.copyOf(usernames, capacity);
+            }
+            ids[doc] = id;
+            uids[doc] = uid;
+            usernames[doc] = username;
+            docByUserId.put(id, doc);
+            index(uid, doc);
+            index(username, doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 순위순으로 최대 limit 건을 반환한다.
+    List<Hit> search(String query, int limit, int maxCandidates) {
+        if (query == null || query.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        BitSet matched = new BitSet();
+        lock.readLock().lock();
+        try {
+            collectExact(query, matched, top, limit);
+            collect(grams(query, true), query, true, matched, top, limit, maxCandidates);
+            if (top.size() < limit && query.length() >= 3) {
+                collect(grams(query, false), query, false, matched, top, limit, maxCandidates);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    // 삭제되지 않은 회원 수
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docByUserId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 서로 다른 trigram 수
+    int gramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeDoc(long id) {
+        Integer doc = docByUserId.remove(id);
+        if (doc != null) {
+            removed.set(doc);
+            uids[doc] = null;
+            usernames[doc] = null;
+        }
+    }
+
+    private void index(String value, int doc) {
+        if (value == null) {
+            return;
+        }
+        for (long gram : grams(value, true)) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(doc);
+        }
+        exact.computeIfAbsent(lowerCase(value), key -> new Postings()).add(doc);
+    }
+
+    // uid 또는 username이 질의와 같은 문서를 top에 넣고 matched에 표시한다.
+    private void collectExact(String query, BitSet matched, PriorityQueue<Hit> top, int limit) {
+        Postings docs = exact.get(lowerCase(query));
+        if (docs == null) {
+            return;
+        }
+        for (int i = 0; i < docs.size; i++) {
+            int doc = docs.docs[i];
+            if (removed.get(doc)) {
+                continue;
+            }
+            Hit hit = matchPrefix(doc, query);
+            if (hit != null && hit.rank == 0) {
+                matched.set(doc);
+                offer(top, hit, limit);
+            }
+        }
+    }
+
+    // 모든 gram의 posting에 있는 문서를 확인해서 top에 넣는다. matched에 표시된 문서(1단계에서 찾은 문서)는 건너뛴다.
+    // 가장 짧은 posting을 차례로 읽으면서, 나머지 posting은 이전에 찾은 위치부터 건너뛰며(galloping) 찾는다.
+    private void collect(long[] grams, String query, boolean prefix, BitSet matched,
+                         PriorityQueue<Hit> top, int limit, int maxCandidates) {
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt((Postings list) -> list.size));
+        int[] from = new int[lists.length];
+
+        Postings shortest = lists[0];
+        int candidates = 0;
+        candidates:
+        for (int i = 0; i < shortest.size && candidates < maxCandidates; i++) {
+            int doc = shortest.docs[i];
+            if (removed.get(doc) || matched.get(doc)) {
+                continue;
+            }
+            for (int l = 1; l < lists.length; l++) {
+                int found = gallop(lists[l], from[l], doc);
+                if (found < 0) {
+                    from[l] = -found - 1;
+                    continue candidates;
+                }
+                from[l] = found + 1;
+            }
+            candidates++;
+            Hit hit = prefix ? matchPrefix(doc, query) : matchSubstring(doc, query);
+            if (hit != null) {
+                offer(top, hit, limit);
+            }
+        }
+    }
+
+    private static void offer(PriorityQueue<Hit> top, Hit hit, int limit) {
+        top.add(hit);
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+    // docs[from..size)에서 doc을 찾는다. 1, 2, 4, 8... 칸씩 건너뛰어 범위를 좁힌 뒤 이진 탐색하므로 가까이 있을수록 빠르다.
+    private static int gallop(Postings list, int from, int doc) {
+        int bound = 1;
+        while (from + bound < list.size && list.docs[from + bound - 1] < doc) {
+            bound <<= 1;
+        }
+        return Arrays.binarySearch(list.docs, from + (bound >>> 1), Math.min(from + bound, list.size), doc);
+    }
+
+    private Hit matchPrefix(int doc, String query) {
+        int rank = Integer.MAX_VALUE;
+        int length = Integer.MAX_VALUE;
+        for (String value : new String[]{uids[doc], usernames[doc]}) {
+            if (value != null && value.regionMatches(true, 0, query, 0, query.length())) {
+                int valueRank = value.length() == query.length() ? 0 : 1;
+                if (valueRank < rank || (valueRank == rank && value.length() < length)) {
+                    rank = valueRank;
+                    length = value.length();
+                }
+            }
+        }
+        return rank == Integer.MAX_VALUE ? null : new Hit(ids[doc], uids[doc], usernames[doc], rank, length);
+    }
+
+    // 접두어로 일치하는 문서는 1단계에서 이미 확인했으므로 제외한다.
+    private Hit matchSubstring(int doc, String query) {
+        String uid = uids[doc];
+        String username = usernames[doc];
+        if (startsWith(uid, query) || startsWith(username, query)) {
+            return null;
+        }
+        int length = Integer.MAX_VALUE;
+        if (contains(uid, query)) {
+            length = uid.length();
+        }
+        if (contains(username, query)) {
+            length = Math.min(length, username.length());
+        }
+        return length == Integer.MAX_VALUE ? null : new Hit(ids[doc], uid, username, 2, length);
+    }
+
+    private static boolean startsWith(String value, String query) {
+        return value != null && value.regionMatches(true, 0, query, 0, query.length());
+    }
+
+    private static boolean contains(String value, String query) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i + query.length() <= value.length(); i++) {
+            if (value.regionMatches(true, i, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // anchored가 true이면 앞에 \0 두 개를 붙인 문자열의 trigram 전체, false이면 원래 문자열 안쪽의 trigram만 만든다.
+    static long[] grams(String value, boolean anchored) {
+        int offset = anchored ? 2 : 0;
+        int count = value.length() + offset - 2;
+        if (count < 1) {
+            return new long[0];
+        }
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) charAt(value, i - offset) << 32)
+                    | ((long) charAt(value, i - offset + 1) << 16)
+                    | charAt(value, i - offset + 2);
+        }
+        return grams;
+    }
+
+    private static char charAt(String value, int index) {
+        return index < 0 ? '\0' : Character.toLowerCase(value.charAt(index));
+    }
+
+    // trigram과 같은 방식(문자별 Character.toLowerCase)으로 소문자로 바꾼다.
+    private static String lowerCase(String value) {
+        char[] chars = new char[value.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(value.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    // 한 trigram을 가진 문서 번호 목록, 문서 번호는 늘어나기만 하므로 추가만 해도 정렬된 상태가 유지된다.
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return; // 같은 문서 안에서 반복된 trigram
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    static final class Hit {
+        final long id;
+        final String uid;
+        final String username;
+        final int rank;
+        final int length;
+
+        Hit(long id, String uid, String username, int rank, int length) {
+            this.id = id;
+            this.uid = uid;
+            this.username = username;
+            this.rank = rank;
+            this.length = length;
+        }
+    }
+}
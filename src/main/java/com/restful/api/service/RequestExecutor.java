@@ -0,0 +1,129 @@
+package com.restful.api.service;
+
+import com.restful.api.advice.exception.CServiceBusyException;
+import com.restful.api.config.datasource.ReadRouting;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+ * 컨트롤러의 DB 작업을 실행하는 실행기
+ * sync : 요청을 받은 톰캣 스레드에서 바로 실행한다. (기존 동작)
+ *        완료된 future를 반환하며, CompletedFutureReturnValueHandler가 결과를 바로 응답하므로 비동기 처리(ASYNC 재디스패치)를 하지 않는다.
+ * async : 크기가 정해진 별도 스레드 풀에서 실행하고 CompletableFuture를 반환한다.
+ *         DB가 느려져도 톰캣 스레드는 바로 반환되므로 DB를 쓰지 않는 요청(health check 등)은 계속 처리된다.
+ * 두 모드 모두 DB 작업의 동시 실행 수를 db-concurrency로 제한(bulkhead)하고,
+ * acquire-timeout-ms 안에 실행 순서를 얻지 못하거나 스레드 풀 큐가 가득 차면 CServiceBusyException(503)으로 바로 거절한다.
+ * 과부하일 때 거절이 몰리므로 거절 예외는 미리 만들어 둔 인스턴스를 던진다.
+ * 전체 요청의 제한 시간은 spring.mvc.async.request-timeout, 쿼리 제한 시간은 javax.persistence.query.timeout으로 설정한다.
+ */
+
+@Component
+public class RequestExecutor implements MeterBinder {
+
+    public enum Mode {
+        SYNC, ASYNC
+    }
+
+    private static final CServiceBusyException QUEUE_FULL = new CServiceBusyException("execution queue is full");
+    private static final CServiceBusyException BULKHEAD_FULL = new CServiceBusyException("database bulkhead is full");
+
+    private final Mode mode;
+    private final Semaphore dbPermits;
+    private final long acquireTimeoutMillis;
+    private final ThreadPoolTaskExecutor executor; // async 모드에서만 사용
+
+    public RequestExecutor(@Value("${spring.users.execution.mode:sync}") String mode,
+                           @Value("${spring.users.execution.pool-size:64}") int poolSize,
+                           @Value("${spring.users.execution.queue-capacity:256}") int queueCapacity,
+                           @Value("${spring.users.execution.db-concurrency:20}") int dbConcurrency,
+                           @Value("${spring.users.execution.acquire-timeout-ms:1000}") long acquireTimeoutMillis) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        this.dbPermits = new Semaphore(dbConcurrency);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        if (this.mode == Mode.ASYNC) {
+            executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(poolSize);
+            executor.setMaxPoolSize(poolSize);
+            executor.setQueueCapacity(queueCapacity);
+            executor.setThreadNamePrefix("user-db-");
+            executor.initialize();
+        } else {
+            executor = null;
+        }
+    }
+
+    // work를 현재 모드로 실행한다. sync 모드의 예외는 그대로 던지고, async 모드의 예외는 future에 담긴다.
+    // async 모드에서 supplyAsync를 쓰면 예외마다 CompletionException(스택 트레이스 포함)으로 감싸므로, 예외를 그대로 future에 넣는다.
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(withPermit(work));
+        }
+        Supplier<T> routed = ReadRouting.propagate(work); // 요청 스레드의 클라이언트로 읽기 라우팅(read-your-writes)을 한다.
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(withPermit(routed));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(QUEUE_FULL);
+        }
+        return future;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    // 현재 DB 작업을 기다리지 않고 바로 실행할 수 있는 수
+    public int availablePermits() {
+        return dbPermits.availablePermits();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.bulkhead.available", dbPermits, Semaphore::availablePermits)
+                .description("바로 실행할 수 있는 DB 작업 수")
+                .register(registry);
+        Gauge.builder("db.bulkhead.waiting", dbPermits, Semaphore::getQueueLength)
+                .description("실행 순서를 기다리는 DB 작업 수")
+                .register(registry);
+    }
+
+    private <T> T withPermit(Supplier<T> work) {
+        try {
+            if (!dbPermits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw BULKHEAD_FULL;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CServiceBusyException("interrupted while waiting for the database bulkhead", e);
+        }
+        try {
+            return work.get();
+        } finally {
+            dbPermits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.restful.api.service;
+
+import com.restful.api.dto.UserBatchItem;
+import com.restful.api.dto.UserBatchItemResult;
+import com.restful.api.dto.UserBatchItemResult.Status;
+import com.restful.api.dto.UserBatchResult;
+import com.restful.api.entity.User;
+import com.restful.api.event.UserChangedEvent;
+import com.restful.api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ * 회원 대량 등록/수정/삭제 서비스
+ * 요청을 chunk-size 건씩 나누어 청크마다 별도의 트랜잭션으로 처리한다.
+ * 청크 안의 INSERT/UPDATE/DELETE는 커밋 시점에 hibernate.jdbc.batch_size 단위의 JDBC 배치로 전송된다.
+ * 청크 처리 중 한 건이라도 실패하면 해당 청크만 롤백하고, 그 청크를 한 건씩 다시 처리해 실패한 항목만 골라낸다.
+ * 따라서 일부 항목이 실패해도 이미 커밋된 청크와 나머지 항목은 그대로 반영된다.
+ * 실패한 항목의 응답에는 정해진 상태와 메시지만 담고, DB 예외 메시지(SQL, 제약조건 이름 등)는 서버 로그에만 남긴다.
+ */
+
+@Slf4j
+@Service
+public class UserBatchService {
+
+    private enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public UserBatchService(UserRepository userRepository, EntityManager entityManager,
+                            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                            @Value("${spring.users.batch.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public UserBatchResult create(Iterator<UserBatchItem> items) {
+        return run(Operation.CREATE, items);
+    }
+
+    public UserBatchResult update(Iterator<UserBatchItem> items) {
+        return run(Operation.UPDATE, items);
+    }
+
+    public UserBatchResult delete(Iterator<UserBatchItem> items) {
+        return run(Operation.DELETE, items);
+    }
+
+    // 요청을 끝까지 읽으면서 청크 단위로 처리한다. 요청 전체를 메모리에 올리지 않는다.
+    private UserBatchResult run(Operation operation, Iterator<UserBatchItem> items) {
+        long started = System.nanoTime();
+        UserBatchResult result = new UserBatchResult();
+        List<UserBatchItem> chunk = new ArrayList<>(chunkSize);
+        int offset = 0;
+        while (items.hasNext()) {
+            chunk.add(items.next());
+            if (chunk.size() == chunkSize) {
+                writeChunk(operation, chunk, offset, result);
+                offset += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(operation, chunk, offset, result);
+        }
+        result.finish(System.nanoTime() - started);
+        return result;
+    }
+
+    private void writeChunk(Operation operation, List<UserBatchItem> chunk, int offset, UserBatchResult result) {
+        List<Written> written;
+        try {
+            written = transactionTemplate.execute(status -> apply(operation, chunk, offset));
+        } catch (RuntimeException e) {
+            // 청크가 롤백되었으므로 한 건씩 다시 처리해 실패한 항목만 실패로 기록한다.
+            written = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                List<UserBatchItem> single = Collections.singletonList(chunk.get(i));
+                int index = offset + i;
+                try {
+                    written.addAll(transactionTemplate.execute(status -> apply(operation, single, index)));
+                } catch (RuntimeException itemFailure) {
+                    log.warn("User batch {} failed at index {}", operation, index, itemFailure);
+                    written.add(new Written(failure(index, chunk.get(i).getId(), itemFailure), null));
+                }
+            }
+        }
+
+        // 커밋이 끝난 항목만 캐시 무효화 등을 위해 이벤트를 발행한다.
+        for (Written w : written) {
+            result.add(w.result);
+            if (w.event != null) {
+                eventPublisher.publishEvent(w.event);
+            }
+        }
+        result.chunkCompleted();
+    }
+
+    // 하나의 트랜잭션 안에서 청크를 처리한다.
+    private List<Written> apply(Operation operation, List<UserBatchItem> chunk, int offset) {
+        List<Written> written = new ArrayList<>(chunk.size());
+        Map<Long, User> found = operation == Operation.CREATE ? Collections.emptyMap() : loadAll(chunk);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            UserBatchItem item = chunk.get(i);
+            int index = offset + i;
+            if (operation != Operation.CREATE && item.getId() == null) {
+                written.add(new Written(UserBatchItemResult.failure(index, null, Status.INVALID, "id is required"), null));
+                continue;
+            }
+            if (operation != Operation.DELETE && (isBlank(item.getUid()) || isBlank(item.getUsername()))) {
+                written.add(new Written(UserBatchItemResult.failure(index, item.getId(), Status.INVALID,
+                        "uid and username are required"), null));
+                continue;
+            }
+
+            switch (operation) {
+                case CREATE: {
+                    User user = User.builder().uid(item.getUid()).username(item.getUsername()).build();
+                    entityManager.persist(user); // 시퀀스에서 미리 할당받은 id가 바로 채워진다.
+                    written.add(new Written(UserBatchItemResult.success(index, user.getId(), Status.CREATED),
+                            UserChangedEvent.created(user)));
+                    break;
+                }
+                case UPDATE: {
+                    User user = found.get(item.getId());
+                    if (user == null) {
+                        written.add(new Written(UserBatchItemResult.failure(index, item.getId(), Status.NOT_FOUND, null), null));
+                        break;
+                    }
+                    user.setUid(item.getUid()); // 변경 감지로 커밋 시점에 배치 UPDATE
+                    user.setUsername(item.getUsername());
+                    written.add(new Written(UserBatchItemResult.success(index, user.getId(), Status.UPDATED),
+                            UserChangedEvent.updated(user)));
+                    break;
+                }
+                case DELETE: {
+                    User user = found.get(item.getId());
+                    if (user == null) {
+                        written.add(new Written(UserBatchItemResult.failure(index, item.getId(), Status.NOT_FOUND, null), null));
+                        break;
+                    }
+                    entityManager.remove(user);
+                    written.add(new Written(UserBatchItemResult.success(index, user.getId(), Status.DELETED),
+                            UserChangedEvent.deleted(user.getId())));
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unknown operation: " + operation);
+            }
+        }
+        return written;
+    }
+
+    // 청크에 포함된 회원을 IN 쿼리 한 번으로 조회한다.
+    private Map<Long, User> loadAll(List<UserBatchItem> chunk) {
+        List<Long> ids = chunk.stream()
+                .map(UserBatchItem::getId)
+                .filter(id -> id != null)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    // 알려진 실패는 정해진 상태와 메시지로 바꾸고, 그 밖의 실패는 내부 오류로만 알린다.
+    private static UserBatchItemResult failure(int index, Long id, RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException) {
+            if (isDuplicateKey(e)) {
+                return UserBatchItemResult.failure(index, id, Status.DUPLICATE, "uid already exists");
+            }
+            return UserBatchItemResult.failure(index, id, Status.INVALID, "invalid value");
+        }
+        if (e instanceof OptimisticLockingFailureException) {
+            return UserBatchItemResult.failure(index, id, Status.FAILED, "user was modified concurrently");
+        }
+        return UserBatchItemResult.failure(index, id, Status.FAILED, "internal error");
+    }
+
+    // 유니크 제약조건 위반 (H2 : SQLState 23505, MySQL : 에러 코드 1062)
+    private static boolean isDuplicateKey(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                if ("23505".equals(sqlException.getSQLState()) || sqlException.getErrorCode() == 1062) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // 건별 처리 결과와 커밋 후 발행할 이벤트
+    private static class Written {
+        private final UserBatchItemResult result;
+        private final UserChangedEvent event;
+
+        Written(UserBatchItemResult result, UserChangedEvent event) {
+            this.result = result;
+            this.event = event;
+        }
+    }
+}
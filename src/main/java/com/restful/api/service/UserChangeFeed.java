@@ -0,0 +1,443 @@
+package com.restful.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.api.dto.UserChange;
+import com.restful.api.event.UserChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * 회원 변경 피드 (/v1/users/changes)
+ * 다른 서비스가 GET /v1/users를 반복 조회하지 않고 생성/수정/삭제된 회원만 받아가도록 한다.
+ *
+ * - 기록 : UserChangedEvent를 받으면 일련번호(seq)를 붙여 크기가 정해진 링 버퍼에 넣는다.
+ *          번호를 CAS로 받고 칸에 쓰기만 하므로 쓰기 요청은 잠금이나 I/O를 기다리지 않는다.
+ * - 전송 : flush-interval-ms 마다 한 스레드가 새 변경을 모아서 같은 회원의 변경은 마지막 것만 남기고(coalesce),
+ *          SSE/NDJSON 본문을 한 번만 만든 뒤 모든 구독자에게 같은 byte[]를 보낸다.
+ *          실제 쓰기는 sender-threads 크기의 스레드 풀에서 하며, 구독자마다 스레드를 두지 않는다.
+ *          이전 전송이 끝나지 않은 느린 구독자는 이번 전송을 건너뛰고, 이전 전송이 끝날 때 자신의 seq부터 링 버퍼를 읽어 따라잡는다.
+ * - 이어받기 : SSE는 Last-Event-ID(또는 after), NDJSON long-poll은 after 파라미터의 seq 다음부터 보낸다.
+ *          버퍼에서 이미 밀려난 seq이면 RESET 항목을 보낸다. (UserChange)
+ * seq는 노드마다, 재시작할 때마다 새로 시작하므로 피드는 이 노드에서 처리한 변경만 포함한다.
+ */
+
+@Slf4j
+@Component
+public class UserChangeFeed implements MeterBinder {
+
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ObjectMapper objectMapper;
+    private final int mask;
+    private final AtomicReferenceArray<UserChange> ring;
+    private final AtomicLong nextSeq = new AtomicLong(1);
+    private final int maxBatchSize;
+    private final int maxSubscribers;
+    private final long subscriptionTimeoutMillis;
+    private final long pollTimeoutMillis;
+    private final long heartbeatNanos;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Queue<Poll> polls = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService senders;
+
+    private volatile long flushedSeq; // 마지막으로 보낸 seq, flusher 스레드만 바꾼다.
+    private long lastHeartbeat = System.nanoTime(); // flusher 스레드에서만 사용한다.
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+
+    public UserChangeFeed(ObjectMapper objectMapper,
+                          @Value("${spring.users.change-feed.capacity:65536}") int capacity,
+                          @Value("${spring.users.change-feed.flush-interval-ms:100}") long flushIntervalMillis,
+                          @Value("${spring.users.change-feed.max-batch-size:500}") int maxBatchSize,
+                          @Value("${spring.users.change-feed.sender-threads:4}") int senderThreads,
+                          @Value("${spring.users.change-feed.max-subscribers:10000}") int maxSubscribers,
+                          @Value("${spring.users.change-feed.subscription-timeout-ms:1800000}") long subscriptionTimeoutMillis,
+                          @Value("${spring.users.change-feed.poll-timeout-ms:30000}") long pollTimeoutMillis,
+                          @Value("${spring.users.change-feed.heartbeat-interval-ms:15000}") long heartbeatIntervalMillis) {
+        this.objectMapper = objectMapper;
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1; // 2의 거듭제곱으로 올림
+        this.mask = size - 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.maxBatchSize = maxBatchSize;
+        this.maxSubscribers = maxSubscribers;
+        this.subscriptionTimeoutMillis = subscriptionTimeoutMillis;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatIntervalMillis);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(daemon("user-feed-flush"));
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemon("user-feed-send"));
+        this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        long seq = nextSeq.getAndIncrement();
+        ring.set((int) seq & mask, UserChange.of(seq, event));
+    }
+
+    // 마지막으로 기록한 seq, 아직 없으면 0
+    public long latestSeq() {
+        return nextSeq.get() - 1;
+    }
+
+    // SSE 구독, after 다음 변경부터 보낸다. 구독자 수가 가득 차면 null
+    public ResponseBodyEmitter subscribe(long after) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(subscriptionTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, after);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        if (after != latestSeq() && subscriber.busy.compareAndSet(false, true)) {
+            senders.execute(() -> send(subscriber, null));
+        }
+        return emitter;
+    }
+
+    // NDJSON long-poll, after 다음 변경이 있으면 바로, 없으면 다음 전송 때까지(최대 poll-timeout-ms) 기다렸다가 응답한다.
+    public DeferredResult<ResponseEntity<byte[]>> poll(long after) {
+        DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>(pollTimeoutMillis, () -> ndjson(after, EMPTY));
+        List<UserChange> changes = read(after, latestSeq());
+        if (changes == null || !changes.isEmpty()) {
+            result.setResult(pollResult(after, changes));
+            return result;
+        }
+        Poll poll = new Poll(after, result);
+        result.onCompletion(() -> polls.remove(poll));
+        polls.add(poll);
+        // 등록하는 사이에 전송이 끝났으면 다음 전송까지 기다리지 않고 바로 응답한다.
+        long flushed = flushedSeq;
+        if (flushed > after && polls.remove(poll)) {
+            result.setResult(pollResult(after, read(after, flushed)));
+        }
+        return result;
+    }
+
+    // after 다음부터 upTo까지의 변경, 아직 쓰는 중인 칸에서 멈춘다. 버퍼에서 밀려났거나 알 수 없는 seq이면 null
+    List<UserChange> read(long after, long upTo) {
+        if (after < 0 || after > latestSeq()) {
+            return null;
+        }
+        List<UserChange> changes = new ArrayList<>();
+        for (long seq = after + 1; seq <= upTo && changes.size() < maxBatchSize; seq++) {
+            UserChange change = ring.get((int) seq & mask);
+            if (change == null || change.getSeq() < seq) {
+                break;
+            }
+            if (change.getSeq() > seq) {
+                return null;
+            }
+            changes.add(change);
+        }
+        return changes;
+    }
+
+    // 같은 회원의 변경은 마지막 것만 남긴다. 생성 후 수정되었으면 최신 정보로 생성 이벤트를 보낸다.
+    static List<UserChange> coalesce(List<UserChange> changes) {
+        Map<Long, UserChange> byUser = new LinkedHashMap<>();
+        for (UserChange change : changes) {
+            UserChange previous = byUser.remove(change.getId());
+            if (previous != null && previous.getType() == UserChange.Type.CREATED && change.getType() == UserChange.Type.UPDATED) {
+                change = new UserChange(change.getSeq(), UserChange.Type.CREATED, change.getId(), change.getUser());
+            }
+            byUser.put(change.getId(), change);
+        }
+        return new ArrayList<>(byUser.values());
+    }
+
+    // 새 변경을 max-batch-size 단위로 모아 구독자에게 보낸다. (flusher 스레드)
+    void flush() {
+        try {
+            boolean sent = false;
+            long latest = latestSeq();
+            while (flushedSeq < latest) {
+                List<UserChange> changes = read(flushedSeq, latest);
+                if (changes == null) { // 한 주기에 버퍼 크기보다 많이 쌓인 경우, 뒤처진 구독자는 각자 RESET을 받는다.
+                    flushedSeq = latest;
+                    break;
+                }
+                if (changes.isEmpty()) {
+                    break; // 번호는 받았지만 아직 쓰지 않은 칸, 다음 주기에 보낸다.
+                }
+                Batch batch = new Batch(flushedSeq, changes);
+                flushedSeq = batch.last;
+                batches.increment();
+                coalesced.add(changes.size() - batch.changes.size()); // 구독자별로 따라잡을 때 만드는 묶음은 세지 않는다.
+                deliver(batch);
+                sent = true;
+            }
+            if (!sent && System.nanoTime() - lastHeartbeat > heartbeatNanos) {
+                heartbeat();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush user change feed", e);
+        }
+    }
+
+    private void deliver(Batch batch) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.busy.compareAndSet(false, true)) {
+                senders.execute(() -> send(subscriber, batch));
+            }
+        }
+        Iterator<Poll> iterator = polls.iterator();
+        while (iterator.hasNext()) {
+            Poll poll = iterator.next();
+            if (poll.after < batch.last) {
+                iterator.remove();
+                poll.result.setResult(poll.after == batch.after
+                        ? ndjson(batch.last, batch.ndjson())
+                        : pollResult(poll.after, read(poll.after, batch.last)));
+            }
+        }
+    }
+
+    // 구독자의 seq가 batch 시작과 같으면 미리 만든 본문을 그대로 보내고, 뒤처져 있으면 링 버퍼에서 읽어 따라잡는다.
+    private void send(Subscriber subscriber, Batch batch) {
+        try {
+            if (batch != null && subscriber.cursor == batch.after) {
+                subscriber.write(batch.sse(), batch.last);
+            }
+            long target = Math.max(flushedSeq, batch == null ? latestSeq() : batch.last);
+            while (subscriber.cursor < target) {
+                List<UserChange> changes = read(subscriber.cursor, target);
+                if (changes == null) {
+                    resets.increment();
+                    long seq = latestSeq();
+                    subscriber.write(sse(seq, Collections.singletonList(UserChange.reset(seq))), seq);
+                    subscriber.emitter.complete();
+                    return;
+                }
+                if (changes.isEmpty()) {
+                    break;
+                }
+                Batch own = new Batch(subscriber.cursor, changes);
+                subscriber.write(own.sse(), own.last);
+            }
+        } catch (IOException | RuntimeException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            release(subscriber);
+        }
+    }
+
+    // 전송이 끝난 구독자를 놓아준다. 그 사이 flush가 이 구독자를 건너뛰었으면 이어서 보낸다.
+    // busy를 푼 뒤에 다시 확인하므로, 건너뛴 flush가 busy를 보기 전이든 후든 변경을 놓치지 않는다.
+    private void release(Subscriber subscriber) {
+        subscriber.busy.set(false);
+        if (subscriber.cursor < flushedSeq && subscribers.contains(subscriber) && subscriber.busy.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> send(subscriber, null));
+            } catch (RejectedExecutionException e) { // 종료 중
+                subscriber.busy.set(false);
+            }
+        }
+    }
+
+    // 변경이 없을 때도 주기적으로 주석 한 줄을 보내서 프록시가 연결을 끊지 않게 하고, 끊긴 연결을 정리한다.
+    private void heartbeat() {
+        lastHeartbeat = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.busy.compareAndSet(false, true)) {
+                senders.execute(() -> {
+                    try {
+                        subscriber.emitter.send(HEARTBEAT);
+                    } catch (IOException | RuntimeException e) {
+                        subscribers.remove(subscriber);
+                        subscriber.emitter.completeWithError(e);
+                    } finally {
+                        release(subscriber);
+                    }
+                });
+            }
+        }
+    }
+
+    private ResponseEntity<byte[]> pollResult(long after, List<UserChange> changes) {
+        if (changes == null) {
+            resets.increment();
+            long seq = latestSeq();
+            return ndjson(seq, ndjson(Collections.singletonList(UserChange.reset(seq))));
+        }
+        if (changes.isEmpty()) {
+            return ndjson(after, EMPTY);
+        }
+        return ndjson(changes.get(changes.size() - 1).getSeq(), ndjson(coalesce(changes)));
+    }
+
+    // X-Feed-Seq : 다음 요청의 after로 넘길 seq
+    private static ResponseEntity<byte[]> ndjson(long seq, byte[] body) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("X-Feed-Seq", String.valueOf(seq))
+                .body(body);
+    }
+
+    private byte[] ndjson(List<UserChange> changes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(changes.size() * 128);
+        try {
+            for (UserChange change : changes) {
+                out.write(objectMapper.writeValueAsBytes(change));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // id: <마지막 seq>, event: users, data: 변경 목록(JSON 배열)
+    private byte[] sse(long lastSeq, List<UserChange> changes) {
+        try {
+            return ("id: " + lastSeq + "\nevent: users\ndata: " + objectMapper.writeValueAsString(changes) + "\n\n")
+                    .getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.changes.subscribers", subscribers, Collection::size)
+                .description("SSE 구독자 수")
+                .register(registry);
+        Gauge.builder("users.changes.polls", polls, Collection::size)
+                .description("변경을 기다리는 long-poll 요청 수")
+                .register(registry);
+        FunctionCounter.builder("users.changes.events", nextSeq, seq -> seq.get() - 1)
+                .description("기록한 변경 수")
+                .register(registry);
+        FunctionCounter.builder("users.changes.batches", batches, LongAdder::sum)
+                .description("구독자에게 보낸 묶음 수")
+                .register(registry);
+        FunctionCounter.builder("users.changes.coalesced", coalesced, LongAdder::sum)
+                .description("같은 회원의 이전 변경이라 보내지 않은 변경 수")
+                .register(registry);
+        FunctionCounter.builder("users.changes.resets", resets, LongAdder::sum)
+                .description("버퍼에서 밀려난 seq를 요청해서 RESET을 보낸 수")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        for (Poll poll : polls) {
+            poll.result.setResult(ndjson(poll.after, EMPTY));
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicLong count = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // flush 한 번에 보내는 변경 묶음, 본문은 처음 필요할 때 한 번만 만든다.
+    private class Batch {
+        private final long after;
+        private final long last;
+        private final List<UserChange> changes;
+        private byte[] sse;
+        private byte[] ndjson;
+
+        Batch(long after, List<UserChange> changes) {
+            this.after = after;
+            this.last = changes.get(changes.size() - 1).getSeq();
+            this.changes = coalesce(changes);
+        }
+
+        synchronized byte[] sse() {
+            if (sse == null) {
+                sse = UserChangeFeed.this.sse(last, changes);
+            }
+            return sse;
+        }
+
+        synchronized byte[] ndjson() {
+            if (ndjson == null) {
+                ndjson = UserChangeFeed.this.ndjson(changes);
+            }
+            return ndjson;
+        }
+    }
+
+    private static class Subscriber {
+        private final ResponseBodyEmitter emitter;
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private volatile long cursor; // 마지막으로 보낸 seq
+
+        Subscriber(ResponseBodyEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        void write(byte[] frame, long seq) throws IOException {
+            emitter.send(frame);
+            cursor = seq;
+        }
+    }
+
+    private static class Poll {
+        private final long after;
+        private final DeferredResult<ResponseEntity<byte[]>> result;
+
+        Poll(long after, DeferredResult<ResponseEntity<byte[]>> result) {
+            this.after = after;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.restful.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.restful.api.event.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*
+ * 인증 시 사용하는 회원 정보(UserDetails) 캐시
+ * JWT 필터를 통과하는 모든 요청이 loadUserByUsername으로 회원을 조회하므로, 같은 회원은 TTL 동안 DB를 다시 조회하지 않는다.
+ * 회원 정보가 바뀌면 UserChangedEvent를 받아 즉시 무효화하므로, TTL은 다른 노드에서 바뀐 정보를 반영하는 최대 지연 시간이 된다.
+ */
+
+@Component
+public class UserPrincipalCache implements MeterBinder {
+
+    private final Cache<Long, UserDetails> cache;
+
+    public UserPrincipalCache(@Value("${spring.jwt.principal-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${spring.jwt.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    // 캐시에 없으면 loader로 조회해 저장한다. loader가 예외를 던지면 저장하지 않는다.
+    public UserDetails get(Long userPk, Function<Long, UserDetails> loader) {
+        return cache.get(userPk, loader);
+    }
+
+    public void invalidate(Long userPk) {
+        cache.invalidate(userPk);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // cache.gets(hit/miss), cache.evictions 등을 cache=userPrincipals 태그로 등록한다.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "userPrincipals");
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,134 @@
+package com.restful.api.service;
+
+import com.restful.api.config.datasource.ReadRouting;
+import com.restful.api.dto.UserView;
+import com.restful.api.entity.User;
+import com.restful.api.event.UserChangedEvent;
+import com.restful.api.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/*
+ * 회원 uid, username 검색 색인 (/v1/users/search)
+ * DB에 LIKE '%x%' 조회를 보내지 않고 메모리의 trigram 역색인(NgramIndex)에서 찾는다.
+ * 결과에는 색인에 있는 id, uid, username만 담기므로 검색은 DB를 전혀 사용하지 않는다.
+ *
+ * 시작할 때 회원 전체를 커서로 한 건씩 읽어서 만들고, 이 노드에서 생성/수정/삭제된 회원은 UserChangedEvent로 바로 반영한다.
+ * 다른 노드의 변경과 삭제 표시된 문서 정리는 rebuild-interval-ms 마다 새로 만들 때 반영된다.
+ * 새로 만드는 동안 들어온 변경은 새 색인에도 반영하고, 읽는 중인 스냅샷보다 최신이므로 DB에서 읽은 값으로 덮어쓰지 않는다.
+ * 아직 만들어지지 않았으면 빈 결과를 반환한다.
+ */
+
+@Slf4j
+@Component
+public class UserSearchIndex implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxCandidates;
+
+    private volatile NgramIndex current; // 검색에 사용하는 색인
+    private volatile NgramIndex building; // 새로 만드는 중인 색인
+    private final Set<Long> changedWhileBuilding = ConcurrentHashMap.newKeySet();
+
+    public UserSearchIndex(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                           @Value("${spring.users.search-index.max-candidates:5000}") int maxCandidates) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxCandidates = maxCandidates;
+    }
+
+    // query로 시작하거나 query를 포함하는 회원을 순위순으로 최대 limit 건 반환한다. (대소문자 구분 없음)
+    public List<UserView> search(String query, int limit) {
+        NgramIndex index = current;
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        List<NgramIndex.Hit> hits = index.search(query, limit, maxCandidates);
+        List<UserView> users = new ArrayList<>(hits.size());
+        for (NgramIndex.Hit hit : hits) {
+            users.add(new UserView(hit.id, hit.uid, hit.username, null, null));
+        }
+        return users;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    // 회원 전체를 다시 읽어 새 색인으로 교체한다.
+    // replica에서 읽으면 복제되지 않은 변경이 다음 재구성까지 빠지므로, 읽기 전용 트랜잭션이지만 primary에서 읽는다.
+    @Scheduled(initialDelayString = "${spring.users.search-index.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${spring.users.search-index.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        try {
+            NgramIndex next = new NgramIndex();
+            changedWhileBuilding.clear();
+            building = next;
+            ReadRouting.onPrimary(() -> readOnlyTransaction.execute(status -> {
+                try (Stream<UserView> users = userRepository.streamAllViews()) {
+                    users.filter(user -> !changedWhileBuilding.contains(user.getId()))
+                            .forEach(user -> next.put(user.getId(), user.getUid(), user.getUsername()));
+                }
+                return null;
+            }));
+            current = next;
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild user search index, keeping the previous one", e);
+        } finally {
+            building = null;
+            changedWhileBuilding.clear();
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        // building을 먼저 반영해야 다시 만드는 도중 바뀐 회원이 교체 후에도 남는다.
+        NgramIndex next = building;
+        if (next != null) {
+            changedWhileBuilding.add(event.getUserId());
+            apply(next, event);
+        }
+        NgramIndex index = current;
+        if (index != null) {
+            apply(index, event);
+        }
+    }
+
+    private static void apply(NgramIndex index, UserChangedEvent event) {
+        User user = event.getUser();
+        if (user == null) {
+            index.remove(event.getUserId());
+        } else {
+            index.put(user.getId(), user.getUid(), user.getUsername());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.search.index.size", this, index -> index.current == null ? 0 : index.current.size())
+                .description("검색 색인에 있는 회원 수")
+                .register(registry);
+        Gauge.builder("users.search.index.grams", this, index -> index.current == null ? 0 : index.current.gramCount())
+                .description("검색 색인의 trigram 수")
+                .register(registry);
+    }
+}
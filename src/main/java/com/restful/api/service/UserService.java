@@ -1,22 +1,183 @@
 package com.restful.api.service;
 
 import com.restful.api.advice.exception.CUserNotFoundException;
+import com.restful.api.advice.exception.CVersionConflictException;
+import com.restful.api.config.CacheConfig;
+import com.restful.api.config.datasource.ReadRouting;
+import com.restful.api.config.datasource.RecentWrites;
+import com.restful.api.dto.UserVersion;
+import com.restful.api.dto.UserView;
+import com.restful.api.entity.User;
+import com.restful.api.event.UserChangedEvent;
 import com.restful.api.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/*
+ * 회원 조회 서비스
+ * id, uid로 조회한 회원은 CacheManager의 캐시에 보관하고, UserChangedEvent를 받으면 해당 회원의 항목만 제거한다.
+ * uid 캐시는 uid -> id만 들고 있고 실제 회원은 id 캐시에서 꺼내므로, 같은 회원이 두 벌로 저장되지 않는다.
+ * 회원 수정으로 uid가 바뀌면 예전 uid 항목이 남을 수 있는데, 꺼낼 때 uid가 일치하는지 다시 확인하므로 잘못된 회원이 반환되지는 않는다.
+ * 가입 중복 확인(isUidTaken)은 uid 필터(UserUidFilter)에서 없는 uid를 걸러 DB까지 가지 않는다.
+ * 필터는 다른 노드에서 가입한 uid를 다음 재구성 전까지 모르므로, 로그인 등 회원을 찾아야 하는 조회(findByUid)에는 사용하지 않는다.
+ * 조회는 저장소의 읽기 전용 트랜잭션으로 replica에서 할 수 있는데(ReplicaRoutingDataSource), 최근 변경된 회원은 복제가 늦어
+ * 이전 값이 캐시에 다시 들어가지 않도록 primary에서 조회한다. (RecentWrites)
+ */
 
-@RequiredArgsConstructor
 @Service
 public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
+    private final UserVersionCache versionCache;
+    private final UserUidFilter uidFilter;
+    private final RecentWrites recentWrites;
+    private final Cache usersById;
+    private final Cache usersByUid;
+
+    public UserService(UserRepository userRepository, UserPrincipalCache principalCache,
+                       UserVersionCache versionCache, UserUidFilter uidFilter, RecentWrites recentWrites,
+                       CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.versionCache = versionCache;
+        this.uidFilter = uidFilter;
+        this.recentWrites = recentWrites;
+        this.usersById = cacheManager.getCache(CacheConfig.USERS_BY_ID);
+        this.usersByUid = cacheManager.getCache(CacheConfig.USERS_BY_UID);
+    }
 
-    // 토큰에 세팅된 유저 정보로 회원정보를 조회한다.
+    // 토큰에 세팅된 유저 정보로 회원정보를 조회한다. 캐시에 있으면 DB를 조회하지 않는다.
     @Override
     public UserDetails loadUserByUsername(String userPk) throws UsernameNotFoundException {
-        return userRepository.findById(Long.valueOf(userPk)).orElseThrow(CUserNotFoundException::new);
+        return principalCache.get(Long.valueOf(userPk),
+                id -> findById(id).orElseThrow(() -> CUserNotFoundException.INSTANCE));
+    }
+
+    // id로 회원을 조회한다. 캐시에 없을 때만 DB를 조회한다.
+    public Optional<User> findById(Long id) {
+        User cached = usersById.get(id, User.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<User> user = read(idKey(id), () -> userRepository.findById(id));
+        user.ifPresent(found -> {
+            usersById.put(found.getId(), found);
+            versionCache.put(UserVersion.of(found));
+        });
+        return user;
+    }
+
+    // 버전 캐시에 있는 경우에만 반환한다. (DB 조회 없음)
+    public UserVersion findCachedVersion(Long id) {
+        return versionCache.get(id);
+    }
+
+    // id로 회원의 버전 정보만 조회한다. 캐시에 없으면 엔티티 대신 버전 컬럼만 조회한다.
+    public Optional<UserVersion> findVersion(Long id) {
+        UserVersion cached = versionCache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<UserVersion> version = read(idKey(id), () -> userRepository.findVersionById(id));
+        version.ifPresent(versionCache::put);
+        return version;
+    }
+
+    // 회원정보를 수정한다. ifMatch(ETag)가 있으면 현재 버전과 같을 때만 수정한다.
+    // 읽은 뒤 다른 요청이 먼저 수정했다면 커밋 시점의 버전 검사(@Version)에서 실패한다.
+    @Transactional
+    public User update(Long id, String uid, String username, String ifMatch) {
+        User user = userRepository.findById(id).orElseThrow(() -> CUserNotFoundException.INSTANCE);
+        if (!UserVersion.of(user).matchesIfMatch(ifMatch)) {
+            throw CVersionConflictException.INSTANCE;
+        }
+        user.setUid(uid);
+        user.setUsername(username);
+        return user;
+    }
+
+    // 가입된 uid인지 확인한다. uid 필터에 없으면 캐시와 DB를 조회하지 않는다.
+    // 다른 노드에서 방금 가입한 uid는 필터에 없을 수 있으므로, 저장할 때 uid 유일성 제약으로 한 번 더 확인해야 한다.
+    public boolean isUidTaken(String uid) {
+        return uidFilter.mightContain(uid) && findByUid(uid).isPresent();
+    }
+
+    // uid로 회원을 조회한다. 캐시에 없을 때만 DB를 조회한다.
+    public Optional<User> findByUid(String uid) {
+        Long id = usersByUid.get(uid, Long.class);
+        if (id != null) {
+            Optional<User> user = findById(id);
+            if (user.isPresent() && uid.equals(user.get().getUid())) {
+                return user;
+            }
+            usersByUid.evict(uid);
+        }
+        Optional<User> user = read(uidKey(uid), () -> userRepository.findByUid(uid));
+        if (user.isPresent() && recentWrites.isRecent(idKey(user.get().getId()))) {
+            // uid는 그대로이고 다른 정보가 바뀌었거나 삭제된 회원
+            user = ReadRouting.onPrimary(() -> userRepository.findByUid(uid));
+        }
+        user.ifPresent(found -> {
+            usersById.put(found.getId(), found);
+            usersByUid.put(uid, found.getId());
+        });
+        return user;
+    }
+
+    // 변경된 회원의 캐시 항목을 제거한다.
+    // 다른 캐시(principal)가 이 캐시에서 다시 읽어가므로 가장 먼저 실행한다.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        recentWrites.wrote(idKey(event.getUserId()));
+        usersById.evict(event.getUserId());
+        if (event.getUser() != null) {
+            recentWrites.wrote(uidKey(event.getUser().getUid()));
+            usersByUid.evict(event.getUser().getUid());
+        }
+    }
+
+    // afterId 다음부터 size 건의 회원을 id 순으로 조회한다.
+    // 읽기 전용 트랜잭션이라 flush를 하지 않으며, 엔티티가 아닌 UserView로 읽으므로 변경 감지 대상도 없다.
+    @Transactional(readOnly = true)
+    public List<UserView> findPage(long afterId, int size) {
+        return userRepository.findViewsAfter(afterId, PageRequest.of(0, size));
+    }
+
+    // 전체 회원을 한 건씩 consumer에 넘긴다.
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserView> consumer) {
+        try (Stream<UserView> users = userRepository.streamAllViews()) {
+            users.forEach(consumer);
+        }
+    }
+
+    // 최근 변경된 회원이면 primary에서 조회한다. (트랜잭션 밖에서 호출)
+    private <T> T read(String key, Supplier<T> query) {
+        return recentWrites.isRecent(key) ? ReadRouting.onPrimary(query) : query.get();
+    }
+
+    private static String idKey(Long id) {
+        return "id:" + id;
+    }
+
+    private static String uidKey(String uid) {
+        return "uid:" + uid;
     }
 }
@@ -0,0 +1,130 @@
+package com.restful.api.service;
+
+import com.restful.api.config.datasource.ReadRouting;
+import com.restful.api.event.UserChangedEvent;
+import com.restful.api.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/*
+ * 회원 uid 존재 여부 필터 (Bloom filter)
+ * 가입할 때 중복 확인을 하면 없는 uid는 DB(uid 인덱스)까지 가지 않고 바로 "없음"을 판단한다.
+ * 다른 노드에서 가입한 uid는 다시 만들 때까지 없다고 판단할 수 있으므로, 회원을 찾는 조회(로그인)에는 사용하지 않는다.
+ * mightContain이 false이면 필터를 만든 뒤 이 노드가 본 uid 중에는 없고, true이면 DB에서 다시 확인해야 한다.
+ *
+ * 시작할 때 uid 인덱스를 한 번 읽어서 만들고, 이 노드에서 생성/수정된 uid는 UserChangedEvent로 바로 추가한다.
+ * 다른 노드에서 가입한 uid와 삭제된 uid는 rebuild-interval-ms 마다 다시 만들 때 반영된다.
+ * 아직 만들어지지 않았으면 모든 uid에 대해 true를 반환하므로 DB 조회로 처리된다.
+ */
+
+@Slf4j
+@Component
+public class UserUidFilter implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedInsertions;
+    private final double fpp;
+
+    private volatile BloomFilter current; // 조회에 사용하는 필터
+    private volatile BloomFilter building; // 다시 만드는 중인 필터, 만드는 동안 추가된 uid도 함께 넣는다.
+
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+
+    public UserUidFilter(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                         @Value("${spring.users.uid-filter.expected-insertions:1000000}") long expectedInsertions,
+                         @Value("${spring.users.uid-filter.fpp:0.01}") double fpp) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+    }
+
+    // uid가 있을 수 있으면 true, 확실히 없으면 false
+    public boolean mightContain(String uid) {
+        BloomFilter filter = current;
+        if (filter == null || filter.mightContain(uid)) {
+            positives.increment();
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    public void put(String uid) {
+        // building을 먼저 확인해야 다시 만드는 도중 추가된 uid가 교체 후에도 남는다.
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(uid);
+        }
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(uid);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    // uid 인덱스를 다시 읽어 새 필터로 교체한다. 삭제된 uid를 지우고, 회원 수에 맞게 크기를 다시 잡는다.
+    // replica는 최근 가입한 uid가 아직 없을 수 있고 그 uid는 다음 재구성까지 빠지므로, 읽기 전용 트랜잭션이지만 primary에서 읽는다.
+    @Scheduled(initialDelayString = "${spring.users.uid-filter.rebuild-interval-ms:600000}",
+            fixedDelayString = "${spring.users.uid-filter.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        try {
+            current = ReadRouting.onPrimary(() -> {
+                long count = userRepository.count();
+                BloomFilter next = new BloomFilter(Math.max(expectedInsertions, count * 2), fpp);
+                building = next;
+                readOnlyTransaction.execute(status -> {
+                    try (Stream<String> uids = userRepository.streamAllUids()) {
+                        uids.forEach(next::put);
+                    }
+                    return null;
+                });
+                return next;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild uid filter, keeping the previous one", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUser() != null) {
+            put(event.getUser().getUid());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("users.uid.filter.lookups", negatives, LongAdder::sum)
+                .tag("result", "negative")
+                .description("uid lookups answered without the database")
+                .register(registry);
+        FunctionCounter.builder("users.uid.filter.lookups", positives, LongAdder::sum)
+                .tag("result", "positive")
+                .register(registry);
+        Gauge.builder("users.uid.filter.bits", this, filter -> filter.current == null ? 0 : filter.current.bitSize())
+                .register(registry);
+    }
+}
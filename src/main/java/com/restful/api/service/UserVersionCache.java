@@ -0,0 +1,58 @@
+package com.restful.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restful.api.dto.UserVersion;
+import com.restful.api.event.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 회원 id -> 버전(ETag, Last-Modified) 캐시
+ * 회원 정보를 반복해서 조회(polling)하는 클라이언트에게 DB 조회 없이 304 Not Modified를 응답하기 위해 사용한다.
+ * 항목이 작으므로 회원 캐시(usersById)보다 훨씬 많은 회원을 담을 수 있다.
+ * 이 노드에서 발생한 변경은 UserChangedEvent로 바로 반영되고, 다른 노드의 변경은 TTL 이후 반영된다.
+ */
+
+@Component
+public class UserVersionCache implements MeterBinder {
+
+    private final Cache<Long, UserVersion> cache;
+
+    public UserVersionCache(@Value("${spring.users.version-cache.maximum-size:1000000}") long maximumSize,
+                            @Value("${spring.users.version-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    public UserVersion get(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    public void put(UserVersion version) {
+        cache.put(version.getId(), version);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUser() != null) {
+            put(UserVersion.of(event.getUser()));
+        } else {
+            cache.invalidate(event.getUserId());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "userVersions");
+    }
+}
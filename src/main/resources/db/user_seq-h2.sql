@@ -0,0 +1,10 @@
+-- 회원 id 생성 방식 변경(IDENTITY -> SEQUENCE user_seq) 마이그레이션 (H2, 개발용 DB)
+-- ddl-auto: update는 없는 시퀀스를 1부터 시작하도록 만들기 때문에, 회원이 이미 있는 DB에서는 새 회원 id가 기존 id와 겹친다.
+-- 회원이 있는 DB로 새 버전을 처음 시작하기 전에, 서버를 내린 상태에서 한 번 실행한다. (새로 만드는 DB는 실행하지 않아도 된다)
+--   java -cp h2-1.4.200.jar org.h2.tools.RunScript -url jdbc:h2:tcp://localhost/~/api -user sa -script user_seq-h2.sql
+--
+-- 시퀀스는 max(id) + allocationSize(50) + 1 부터 시작한다. (user_seq-mysql.sql 참고) 여러 번 실행해도 된다.
+
+CREATE SEQUENCE IF NOT EXISTS user_seq START WITH 1 INCREMENT BY 50;
+
+ALTER SEQUENCE user_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 51 FROM user);
@@ -0,0 +1,18 @@
+-- 회원 id 생성 방식 변경(IDENTITY -> SEQUENCE user_seq) 마이그레이션 (MySQL)
+-- MySQL은 시퀀스가 없어서 하이버네이트가 user_seq 테이블(next_val 컬럼 한 행)로 시퀀스를 흉내낸다.
+-- 운영 프로필은 ddl-auto: validate 이므로 이 테이블이 없으면 서버가 시작하지 않는다.
+--
+-- 새 버전을 배포하기 전에, 이전 버전 서버를 모두 내린 상태에서 한 번 실행한다.
+-- (이전 버전이 AUTO_INCREMENT로 넣은 id와 겹치지 않도록, 실행 이후에는 새 버전만 회원을 추가해야 한다)
+--   mysql -h $DB_HOST -u $DB_USERNAME -p $DB_NAME < user_seq-mysql.sql
+--
+-- next_val은 max(id) + allocationSize(50) + 1 로 시작한다. 하이버네이트는 읽은 값에서 allocationSize만큼 아래부터
+-- id를 할당하므로(pooled), 이렇게 두어야 기존 id보다 큰 값부터 할당된다. 여러 번 실행해도 된다.
+
+CREATE TABLE IF NOT EXISTS user_seq (next_val BIGINT) ENGINE=InnoDB;
+
+INSERT INTO user_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM `user`
+WHERE NOT EXISTS (SELECT * FROM user_seq);
+
+UPDATE user_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM `user`));
@@ -0,0 +1,37 @@
+package com.restful.api.advice.exception;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CExceptionTest {
+
+    @Test
+    void hasNoStackTrace() {
+        assertThat(new CUserNotFoundException().getStackTrace()).isEmpty();
+        assertThat(new CServiceBusyException("busy").getStackTrace()).isEmpty();
+    }
+
+    @Test
+    void keepsCauseStackTrace() {
+        IllegalStateException cause = new IllegalStateException();
+        CDuplicatedUidException e = new CDuplicatedUidException("uid", cause);
+
+        assertThat(e.getCause()).isSameAs(cause);
+        assertThat(e.getCause().getStackTrace()).isNotEmpty();
+    }
+
+    // 여러 요청이 함께 던져도 상태가 바뀌지 않는다.
+    @Test
+    void sharedInstanceCannotBeChanged() {
+        CUserNotFoundException shared = CUserNotFoundException.INSTANCE;
+        shared.addSuppressed(new IllegalStateException());
+        shared.setStackTrace(new StackTraceElement[]{new StackTraceElement("A", "b", "A.java", 1)});
+
+        assertThat(shared.getSuppressed()).isEmpty();
+        assertThat(shared.getStackTrace()).isEmpty();
+        assertThatThrownBy(() -> shared.initCause(new IllegalStateException())).isInstanceOf(IllegalStateException.class);
+        assertThat(shared.getCause()).isNull();
+    }
+}
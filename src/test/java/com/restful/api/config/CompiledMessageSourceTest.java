@@ -0,0 +1,39 @@
+package com.restful.api.config;
+
+import com.restful.api.response.FailureTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledMessageSourceTest {
+
+    private final CompiledMessageSource messageSource = new CompiledMessageSource("i18n/exception", Locale.KOREAN);
+
+    @Test
+    void resolvesMessagesPerLocale() {
+        assertThat(messageSource.getMessage("userNotFound.message", null, Locale.ENGLISH)).isEqualTo("This member not exist");
+        assertThat(messageSource.getMessage("userNotFound.message", null, Locale.KOREAN)).isEqualTo("존재하지 않는 회원입니다.");
+    }
+
+    @Test
+    void fallsBackToLanguageThenDefaultLocale() {
+        assertThat(messageSource.getMessage("unKnown.message", null, Locale.US)).isEqualTo("An unknown error has occurred.");
+        assertThat(messageSource.getMessage("unKnown.message", null, Locale.FRENCH)).isEqualTo("알 수 없는 오류가 발생하였습니다.");
+    }
+
+    @Test
+    void usesCodeAsDefaultMessage() {
+        assertThat(messageSource.getMessage("missing.code", null, Locale.KOREAN)).isEqualTo("missing.code");
+    }
+
+    @Test
+    void precompilesFailureTemplates() {
+        FailureTemplate failure = messageSource.getFailure("userNotFound", Locale.ENGLISH);
+        assertThat(failure.getCode()).isEqualTo(-1000);
+        assertThat(failure.getMessage()).isEqualTo("This member not exist");
+
+        assertThat(messageSource.getFailure("notDefined", Locale.ENGLISH).getCode()).isEqualTo(-9999);
+    }
+}
@@ -0,0 +1,92 @@
+package com.restful.api.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.DeferredResultMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.HttpEntityMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletedFutureReturnValueHandlerTest {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final NativeWebRequest webRequest = new ServletWebRequest(request, response);
+    private final ModelAndViewContainer mavContainer = new ModelAndViewContainer();
+    private CompletedFutureReturnValueHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        request.setAsyncSupported(true);
+        WebAsyncUtils.getAsyncManager(webRequest).setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        List<HttpMessageConverter<?>> converters = Collections.singletonList(new StringHttpMessageConverter());
+        List<HandlerMethodReturnValueHandler> defaults = Arrays.asList(new DeferredResultMethodReturnValueHandler(),
+                new HttpEntityMethodProcessor(converters), new RequestResponseBodyMethodProcessor(converters));
+        handler = new CompletedFutureReturnValueHandler(defaults);
+    }
+
+    // sync 모드처럼 완료된 future는 비동기 처리 없이 결과를 바로 쓴다.
+    @Test
+    void writesCompletedResultWithoutStartingAsync() throws Exception {
+        handle("entity", CompletableFuture.completedFuture(ResponseEntity.status(201).header("ETag", "\"1\"").body("created")));
+
+        assertThat(request.isAsyncStarted()).isFalse();
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getHeader("ETag")).isEqualTo("\"1\"");
+        assertThat(response.getContentAsString()).isEqualTo("created");
+    }
+
+    @Test
+    void writesCompletedBodyWithoutStartingAsync() throws Exception {
+        handle("body", CompletableFuture.completedFuture("plain"));
+
+        assertThat(request.isAsyncStarted()).isFalse();
+        assertThat(response.getContentAsString()).isEqualTo("plain");
+    }
+
+    // async 모드처럼 아직 완료되지 않은 future는 기존대로 비동기로 처리한다.
+    @Test
+    void leavesPendingFutureToAsyncProcessing() throws Exception {
+        handle("body", new CompletableFuture<String>());
+
+        assertThat(request.isAsyncStarted()).isTrue();
+        assertThat(response.getContentAsString()).isEmpty();
+    }
+
+    private void handle(String method, Object returnValue) throws Exception {
+        MethodParameter returnType = new MethodParameter(Handlers.class.getDeclaredMethod(method), -1);
+        assertThat(handler.supportsReturnType(returnType)).isTrue();
+        handler.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+    }
+
+    @RestController
+    static class Handlers {
+
+        CompletableFuture<ResponseEntity<String>> entity() {
+            return null;
+        }
+
+        CompletableFuture<String> body() {
+            return null;
+        }
+    }
+}
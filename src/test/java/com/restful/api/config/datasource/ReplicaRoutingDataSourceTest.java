@@ -0,0 +1,170 @@
+package com.restful.api.config.datasource;
+
+import com.restful.api.dto.UserView;
+import com.restful.api.repository.UserRepository;
+import com.restful.api.service.UserSearchIndex;
+import com.restful.api.service.UserUidFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// primary, replica를 각각 H2 메모리 DB로 띄우고, 어느 쪽에서 읽었는지 node 테이블의 값으로 확인한다.
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate primaryDb;
+    private JdbcTemplate replicaDb;
+    private Replica replica;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private DataSourceTransactionManager transactionManager;
+    private volatile boolean replicaDown;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = h2("primary");
+        DriverManagerDataSource replicaDirect = h2("replica");
+        DataSource replicaSource = new DelegatingDataSource(replicaDirect) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (replicaDown) {
+                    throw new SQLException("replica is down");
+                }
+                return super.getConnection();
+            }
+        };
+        primaryDb = new JdbcTemplate(primary);
+        replicaDb = new JdbcTemplate(replicaDirect);
+        for (JdbcTemplate db : new JdbcTemplate[]{primaryDb, replicaDb}) {
+            db.execute("create table node (name varchar(16))");
+            db.execute("create table users (id bigint primary key, uid varchar(30), username varchar(100))");
+        }
+        primaryDb.update("insert into node values ('primary')");
+        replicaDb.update("insert into node values ('replica')");
+        replicaDb.execute("create table replica_heartbeat (id int primary key, beat_at bigint not null)");
+
+        replica = new Replica("replica-1", replicaSource);
+        RecentWrites recentWrites = new RecentWrites(true, 1000, 500);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Collections.singletonList(replica), 1000,
+                recentWrites, new SimpleMeterRegistry());
+        monitor = new ReplicaLagMonitor(primary, Collections.singletonList(replica));
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadRouting.unbindClient();
+    }
+
+    @Test
+    void readsFromReplicaOnlyWhileItKeepsUp() {
+        assertThat(readNode(readOnly)).isEqualTo("primary"); // 지연 시간 확인 전
+
+        monitor.beat(1000);
+        replicate();
+        monitor.beat(1500);
+        assertThat(replica.getLagMillis()).isZero();
+        assertThat(readNode(readOnly)).isEqualTo("replica");
+        assertThat(readNode(readWrite)).isEqualTo("primary");
+        assertThat(jdbc.queryForObject("select name from node", String.class)).isEqualTo("primary"); // 트랜잭션 밖
+
+        monitor.beat(4000); // 1000에 쓴 값 이후로 복제되지 않음
+        assertThat(replica.getLagMillis()).isEqualTo(3000);
+        assertThat(readNode(readOnly)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsOwnWritesFromPrimary() {
+        catchUp();
+        ReadRouting.bindClient("user:1");
+        readWrite.execute(status -> jdbc.update("update node set name = name"));
+
+        assertThat(readNode(readOnly)).isEqualTo("primary");
+        assertThat(ReadRouting.onPrimary(() -> readNode(readOnly))).isEqualTo("primary");
+
+        ReadRouting.bindClient("user:2");
+        assertThat(readNode(readOnly)).isEqualTo("replica");
+        assertThat(ReadRouting.onPrimary(() -> readNode(readOnly))).isEqualTo("primary");
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsUnreachable() {
+        catchUp();
+        replicaDown = true;
+
+        assertThat(readNode(readOnly)).isEqualTo("primary");
+        assertThat(replica.getLagMillis()).isEqualTo(Replica.UNKNOWN_LAG);
+        monitor.beat(2000);
+        assertThat(replica.getLagMillis()).isEqualTo(Replica.UNKNOWN_LAG);
+    }
+
+    // 허용 범위 안에서 지연 중인 replica에는 방금 가입한 회원이 없지만, 다시 만든 uid 필터와 검색 색인에는 있어야 한다.
+    @Test
+    void rebuildsUserIndexesFromPrimaryWhileReplicaLags() {
+        monitor.beat(1000);
+        replicate();
+        primaryDb.update("insert into users values (1, 'new@restful.com', 'newbie')");
+        monitor.beat(1800); // 1000에 쓴 값까지만 복제됨, 지연 800ms
+        Long replicaUsers = readOnly.execute(status -> jdbc.queryForObject("select count(*) from users", Long.class));
+        assertThat(replicaUsers).isZero();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.count()).thenAnswer(invocation -> jdbc.queryForObject("select count(*) from users", Long.class));
+        when(userRepository.streamAllUids()).thenAnswer(invocation ->
+                jdbc.queryForList("select uid from users", String.class).stream());
+        when(userRepository.streamAllViews()).thenAnswer(invocation -> jdbc.query("select id, uid, username from users",
+                (rs, rowNum) -> new UserView(rs.getLong(1), rs.getString(2), rs.getString(3), null, null)).stream());
+
+        UserUidFilter uidFilter = new UserUidFilter(userRepository, transactionManager, 100, 0.01);
+        uidFilter.rebuild();
+        assertThat(uidFilter.mightContain("new@restful.com")).isTrue();
+        assertThat(uidFilter.mightContain("absent@restful.com")).isFalse(); // 만들어지지 않은 필터는 모두 true
+
+        UserSearchIndex searchIndex = new UserSearchIndex(userRepository, transactionManager, 100);
+        searchIndex.rebuild();
+        assertThat(searchIndex.search("newbie", 10)).extracting(UserView::getId).containsExactly(1L);
+    }
+
+    private void catchUp() {
+        monitor.beat(1000);
+        replicate();
+        monitor.beat(1500);
+    }
+
+    // 복제 : primary의 heartbeat를 replica로 복사한다.
+    private void replicate() {
+        Long beatAt = primaryDb.queryForObject("select beat_at from replica_heartbeat where id = 1", Long.class);
+        replicaDb.update("merge into replica_heartbeat key (id) values (1, ?)", beatAt);
+    }
+
+    private String readNode(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbc.queryForObject("select name from node", String.class));
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,42 @@
+package com.restful.api.config.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 5, 1000);
+        long now = 0;
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("ip:1", now)).isZero();
+        }
+        assertThat(limiter.tryAcquire("ip:1", now)).isEqualTo(SECOND / 10);
+        assertThat(limiter.tryAcquire("ip:2", now)).isZero();
+
+        assertThat(limiter.tryAcquire("ip:1", now + SECOND / 10)).isZero();
+        assertThat(limiter.tryAcquire("ip:1", now + SECOND / 10)).isPositive();
+    }
+
+    @Test
+    void sharesOverflowBucketWhenFullAndEvictsIdleClients() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 16); // stripe당 1개
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("ip:" + i, now);
+        }
+        assertThat(limiter.trackedClients()).isLessThanOrEqualTo(16);
+
+        // 토큰이 모두 다시 채워지면 유휴 버킷으로 제거된다.
+        limiter.evictIdle(now + 2 * SECOND);
+        assertThat(limiter.trackedClients()).isZero();
+    }
+}
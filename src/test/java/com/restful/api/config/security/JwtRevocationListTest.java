@@ -0,0 +1,35 @@
+package com.restful.api.config.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtRevocationListTest {
+
+    private final InMemoryRevocationBackend backend = new InMemoryRevocationBackend();
+
+    @Test
+    void revokesOnceAndSharesThroughBackend() {
+        JwtRevocationList local = new JwtRevocationList(backend);
+        JwtRevocationList remote = new JwtRevocationList(backend);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        assertThat(local.revoke("jti-1", expiresAt)).isTrue();
+        assertThat(local.revoke("jti-1", expiresAt)).isFalse();
+
+        assertThat(local.isRevoked("jti-1", expiresAt)).isTrue();
+        assertThat(remote.isRevoked("jti-1", expiresAt)).isTrue();
+        assertThat(local.isRevoked("jti-2", expiresAt)).isFalse();
+    }
+
+    @Test
+    void ignoresExpiredTokensAndPurgesPastBuckets() {
+        JwtRevocationList revocations = new JwtRevocationList(backend);
+
+        assertThat(revocations.revoke("expired", System.currentTimeMillis() - 1)).isFalse();
+
+        revocations.revoke("valid", System.currentTimeMillis() + 10 * 60_000);
+        revocations.purgeExpired();
+        assertThat(revocations.size()).isEqualTo(1);
+    }
+}
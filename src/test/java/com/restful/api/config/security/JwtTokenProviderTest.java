@@ -0,0 +1,52 @@
+package com.restful.api.config.security;
+
+import com.restful.api.advice.exception.CUserNotFoundException;
+import com.restful.api.entity.User;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private final AtomicReference<UserDetails> stored = new AtomicReference<>(user("ROLE_USER"));
+    private final JwtTokenCache tokenCache = new JwtTokenCache(100);
+    private final JwtTokenProvider provider = new JwtTokenProvider(userPk -> {
+        UserDetails user = stored.get();
+        if (user == null) {
+            throw CUserNotFoundException.INSTANCE;
+        }
+        return user;
+    }, tokenCache, keyring(), new JwtRevocationList(new InMemoryRevocationBackend()));
+
+    // 토큰은 캐시에서 꺼내도 회원 정보는 요청마다 다시 가져오므로, 다른 노드에서 바뀐 권한과 탈퇴가 반영된다.
+    @Test
+    void resolvesPrincipalOnEveryCachedHit() {
+        String token = provider.createToken("1", Collections.singletonList("ROLE_USER"));
+        assertThat(provider.getAuthentication(token).getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+
+        stored.set(user("ROLE_ADMIN"));
+        Authentication changed = provider.getAuthentication(token);
+        assertThat(changed.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+        assertThat(tokenCache.stats().hitCount()).isEqualTo(1);
+
+        stored.set(null);
+        assertThat(provider.getAuthentication(token)).isNull();
+    }
+
+    private static UserDetails user(String role) {
+        return User.builder().id(1L).uid("user@restful.com").username("user")
+                .roles(Collections.singletonList(role)).build();
+    }
+
+    private static JwtKeyring keyring() {
+        JwtKey key = JwtKey.hmac("default", SignatureAlgorithm.HS256, "restfulapi".getBytes(StandardCharsets.UTF_8));
+        return new InMemoryJwtKeyring("default", Collections.singletonList(key));
+    }
+}
@@ -0,0 +1,159 @@
+package com.restful.api.controller.v1;
+
+import com.restful.api.advice.exception.CDuplicatedUidException;
+import com.restful.api.advice.exception.CInvalidTokenException;
+import com.restful.api.advice.exception.CSigninFailedException;
+import com.restful.api.config.security.JwtTokenProvider;
+import com.restful.api.dto.TokenPair;
+import com.restful.api.entity.User;
+import com.restful.api.event.UserChangedEvent;
+import com.restful.api.repository.UserRepository;
+import com.restful.api.response.ResponseService;
+import com.restful.api.response.SingleResult;
+import com.restful.api.service.RequestExecutor;
+import com.restful.api.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// DB 작업은 sync 모드로 실행하므로, 예외는 future가 아니라 호출한 곳으로 바로 던져진다.
+class SignControllerTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserService userService = mock(UserService.class);
+    private final JwtTokenProvider jwtTokenProvider = mock(JwtTokenProvider.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final PasswordEncoder passwordEncoder = spy(new BCryptPasswordEncoder(4));
+    private SignController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new SignController(userRepository, userService, jwtTokenProvider, new ResponseService(),
+                passwordEncoder, eventPublisher, new RequestExecutor("sync", 1, 1, 1, 1000));
+    }
+
+    @Test
+    void signupSavesEncodedPasswordAndPublishesEvent() {
+        when(userService.isUidTaken("new@restful.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(1L);
+            return user;
+        });
+
+        assertThat(controller.signup("new@restful.com", "password", "new").join().isSuccess()).isTrue();
+
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(saved.capture());
+        assertThat(passwordEncoder.matches("password", saved.getValue().getPassword())).isTrue();
+        verify(eventPublisher).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    void signupRejectsDuplicatedUid() {
+        when(userService.isUidTaken("taken@restful.com")).thenReturn(true);
+
+        assertThatThrownBy(() -> controller.signup("taken@restful.com", "password", "taken"))
+                .isInstanceOf(CDuplicatedUidException.class);
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    // 다른 노드에서 방금 가입해 uid 필터에 없는 uid는 저장할 때 유일성 제약으로 걸러진다.
+    @Test
+    void signupRejectsUidTakenOnAnotherNode() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("uid");
+        when(userService.isUidTaken("other@restful.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenThrow(violation);
+
+        assertThatThrownBy(() -> controller.signup("other@restful.com", "password", "other"))
+                .isInstanceOf(CDuplicatedUidException.class)
+                .hasCause(violation);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void signinIssuesTokens() {
+        User user = user(passwordEncoder.encode("password"));
+        when(userService.findByUid("user@restful.com")).thenReturn(Optional.of(user));
+        when(jwtTokenProvider.createToken(eq("1"), any())).thenReturn("access");
+        when(jwtTokenProvider.createRefreshToken("1")).thenReturn("refresh");
+
+        SingleResult<TokenPair> result = controller.signin("user@restful.com", "password").join();
+
+        assertThat(result.getData().getAccessToken()).isEqualTo("access");
+        assertThat(result.getData().getRefreshToken()).isEqualTo("refresh");
+    }
+
+    @Test
+    void signinRejectsWrongPassword() {
+        User user = user(passwordEncoder.encode("password"));
+        when(userService.findByUid("user@restful.com")).thenReturn(Optional.of(user));
+
+        assertThatThrownBy(() -> controller.signin("user@restful.com", "wrong"))
+                .isInstanceOf(CSigninFailedException.class);
+    }
+
+    // 없는 uid, 비밀번호가 없는 회원도 비밀번호를 비교하므로 응답 시간이 같다.
+    @Test
+    void signinComparesPasswordEvenWithoutUser() {
+        when(userService.findByUid("unknown@restful.com")).thenReturn(Optional.empty());
+        when(userService.findByUid("admin@restful.com")).thenReturn(Optional.of(user(null)));
+
+        assertThatThrownBy(() -> controller.signin("unknown@restful.com", "password"))
+                .isInstanceOf(CSigninFailedException.class);
+        assertThatThrownBy(() -> controller.signin("admin@restful.com", "password"))
+                .isInstanceOf(CSigninFailedException.class);
+        verify(passwordEncoder, times(2)).matches(eq("password"), anyString());
+    }
+
+    @Test
+    void refreshRevokesUsedTokenOnlyOnce() {
+        Claims claims = Jwts.claims().setSubject("1");
+        when(jwtTokenProvider.parseRefreshToken("refresh-token")).thenReturn(claims);
+        when(userService.findById(1L)).thenReturn(Optional.of(user("hash")));
+        when(jwtTokenProvider.revoke(claims)).thenReturn(true, false);
+
+        assertThat(controller.refresh("refresh-token").join().isSuccess()).isTrue();
+        assertThatThrownBy(() -> controller.refresh("refresh-token")) // 동시에 보낸 같은 토큰
+                .isInstanceOf(CInvalidTokenException.class);
+    }
+
+    // 회원정보를 읽지 못하면 토큰을 폐기하지 않으므로 다시 시도할 수 있다.
+    @Test
+    void refreshKeepsTokenWhenUserReadFails() {
+        Claims claims = Jwts.claims().setSubject("1");
+        when(jwtTokenProvider.parseRefreshToken("refresh-token")).thenReturn(claims);
+        when(userService.findById(1L)).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatThrownBy(() -> controller.refresh("refresh-token"))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        verify(jwtTokenProvider, never()).revoke(any(Claims.class));
+    }
+
+    private static User user(String password) {
+        return User.builder().id(1L).uid("user@restful.com").username("user").password(password)
+                .roles(Collections.singletonList("ROLE_USER")).build();
+    }
+}
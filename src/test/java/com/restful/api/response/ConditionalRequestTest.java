@@ -0,0 +1,36 @@
+package com.restful.api.response;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalRequestTest {
+
+    @Test
+    void separatesETagsByNegotiatedFormat() {
+        assertThat(ConditionalRequest.formatSuffix(accept(null))).isEmpty();
+        assertThat(ConditionalRequest.formatSuffix(accept("*/*"))).isEmpty();
+        assertThat(ConditionalRequest.formatSuffix(accept("application/json"))).isEmpty();
+        assertThat(ConditionalRequest.formatSuffix(accept("application/cbor"))).isEqualTo("-cbor");
+        assertThat(ConditionalRequest.formatSuffix(accept("application/json;q=0.5, application/x-jackson-smile"))).isEqualTo("-smile");
+        assertThat(ConditionalRequest.formatSuffix(accept("application/cbor;q=0, */*"))).isEmpty();
+    }
+
+    @Test
+    void comparesIfNoneMatchWeakly() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", "W/\"1-3\"");
+
+        assertThat(ConditionalRequest.isNotModified(request, "\"1-3\"", -1)).isTrue();
+        assertThat(ConditionalRequest.isNotModified(request, "\"1-3-cbor\"", -1)).isFalse();
+    }
+
+    private static MockHttpServletRequest accept(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,46 @@
+package com.restful.api.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResponseService responseService = new ResponseService();
+
+    @Test
+    void writesSameFieldsAsBeanSerialization() throws Exception {
+        assertThat(objectMapper.writeValueAsString(responseService.getSingleResult("a")))
+                .isEqualTo("{\"success\":true,\"code\":0,\"message\":\"성공했습니다.\",\"data\":\"a\"}");
+        assertThat(objectMapper.writeValueAsString(responseService.getListResult(Arrays.asList(1, 2), "next")))
+                .isEqualTo("{\"success\":true,\"code\":0,\"message\":\"성공했습니다.\",\"list\":[1,2],\"nextCursor\":\"next\"}");
+        assertThat(objectMapper.writeValueAsString(responseService.getListResult(Arrays.asList(1, 2))))
+                .isEqualTo("{\"success\":true,\"code\":0,\"message\":\"성공했습니다.\",\"list\":[1,2]}");
+        assertThat(objectMapper.writeValueAsString(responseService.getFailResult(new FailureTemplate(-1000, "not found"))))
+                .isEqualTo("{\"success\":false,\"code\":-1000,\"message\":\"not found\"}");
+    }
+
+    @Test
+    void writesMessageWithoutEncodedOne() throws Exception {
+        assertThat(objectMapper.writeValueAsString(responseService.getFailResult(-1, "changed")))
+                .isEqualTo("{\"success\":false,\"code\":-1,\"message\":\"changed\"}");
+        assertThat(objectMapper.writeValueAsString(responseService.getFailResult(-1, null)))
+                .isEqualTo("{\"success\":false,\"code\":-1,\"message\":null}");
+    }
+
+    // 공유 인스턴스를 여러 요청이 함께 사용하므로 결과에는 값을 바꾸는 메서드가 없다.
+    @Test
+    void resultsAreImmutable() {
+        assertThat(responseService.getSuccessResult()).isSameAs(responseService.getSuccessResult());
+        for (Class<?> type : Arrays.asList(CommonResult.class, SingleResult.class, ListResult.class)) {
+            assertThat(type.getMethods()).noneMatch(method -> method.getName().startsWith("set"));
+            assertThat(type.getDeclaredFields())
+                    .allMatch(field -> Modifier.isFinal(field.getModifiers()) || Modifier.isStatic(field.getModifiers()));
+        }
+    }
+}
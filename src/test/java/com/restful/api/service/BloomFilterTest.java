@@ -0,0 +1,34 @@
+package com.restful.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@restful.com");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@restful.com")).isTrue();
+        }
+    }
+
+    @Test
+    void keepsFalsePositivesNearExpectedRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@restful.com");
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("unknown" + i + "@restful.com")) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(200); // 기대값 1%(100건)의 두 배 이내
+    }
+}
@@ -0,0 +1,59 @@
+package com.restful.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NgramIndexTest {
+
+    @Test
+    void ranksExactThenPrefixThenSubstring() {
+        NgramIndex index = new NgramIndex();
+        index.put(1, "happydaddy@restful.com", "HappyDaddy");
+        index.put(2, "dad", "Dad");
+        index.put(3, "daddy@restful.com", "Daddy");
+        index.put(4, "kim@restful.com", "Kim Dad");
+
+        assertThat(ids(index.search("DAD", 10, 1000))).containsExactly(2L, 3L, 4L, 1L);
+        assertThat(ids(index.search("da", 10, 1000))).containsExactly(2L, 3L);
+        assertThat(ids(index.search("dad", 2, 1000))).containsExactly(2L, 3L);
+        assertThat(index.search("mom", 10, 1000)).isEmpty();
+    }
+
+    // 후보는 추가된 순서대로 max-candidates까지만 보지만, 나중에 추가된 회원의 일치 결과는 빠지지 않는다.
+    @Test
+    void findsExactMatchBeyondMaxCandidates() {
+        NgramIndex index = new NgramIndex();
+        for (int i = 1; i <= 10; i++) {
+            index.put(i, "dad" + i + "@restful.com", "Dad " + i);
+        }
+        index.put(11, "dad@restful.com", "DAD");
+        index.put(12, "kim@restful.com", "Kim");
+        index.put(12, "mom@restful.com", "dad");
+
+        assertThat(ids(index.search("dad", 3, 5))).containsExactly(11L, 12L, 1L);
+        assertThat(ids(index.search("Dad", 10, 5))).hasSize(7).startsWith(11L, 12L);
+    }
+
+    @Test
+    void reflectsUpdatesAndRemovals() {
+        NgramIndex index = new NgramIndex();
+        index.put(1, "alice@restful.com", "Alice");
+        index.put(2, "bob@restful.com", "Bob");
+
+        index.put(1, "carol@restful.com", "Carol");
+        index.remove(2);
+
+        assertThat(index.search("alice", 10, 1000)).isEmpty();
+        assertThat(index.search("bob", 10, 1000)).isEmpty();
+        assertThat(ids(index.search("car", 10, 1000))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static List<Long> ids(List<NgramIndex.Hit> hits) {
+        return hits.stream().map(hit -> hit.id).collect(Collectors.toList());
+    }
+}
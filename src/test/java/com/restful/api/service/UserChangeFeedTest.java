@@ -0,0 +1,133 @@
+package com.restful.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.api.dto.UserChange;
+import com.restful.api.entity.User;
+import com.restful.api.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserChangeFeedTest {
+
+    // 버퍼 4칸, 자동 전송은 테스트 중에 일어나지 않도록 길게 둔다.
+    private final UserChangeFeed feed = new UserChangeFeed(new ObjectMapper(), 4, 60_000, 100, 1, 10, 60_000, 60_000, 60_000);
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void readsFromOffsetAndResetsWhenOverwritten() {
+        for (long id = 1; id <= 3; id++) {
+            feed.onUserChanged(UserChangedEvent.created(user(id, "user" + id)));
+        }
+
+        List<UserChange> changes = feed.read(1, feed.latestSeq());
+        assertThat(changes).extracting(UserChange::getSeq).containsExactly(2L, 3L);
+
+        feed.onUserChanged(UserChangedEvent.deleted(1L));
+        feed.onUserChanged(UserChangedEvent.deleted(2L)); // seq 5가 seq 1 칸을 덮어쓴다.
+        assertThat(feed.read(0, feed.latestSeq())).isNull();
+        assertThat(feed.read(1, feed.latestSeq())).hasSize(4);
+        assertThat(feed.read(99, feed.latestSeq())).isNull(); // 재시작 전 seq
+    }
+
+    @Test
+    void coalescesChangesOfSameUser() {
+        feed.onUserChanged(UserChangedEvent.created(user(1, "first")));
+        feed.onUserChanged(UserChangedEvent.created(user(2, "other")));
+        feed.onUserChanged(UserChangedEvent.updated(user(1, "second")));
+
+        List<UserChange> changes = UserChangeFeed.coalesce(feed.read(0, feed.latestSeq()));
+
+        assertThat(changes).extracting(UserChange::getId).containsExactly(2L, 1L);
+        assertThat(changes.get(1).getType()).isEqualTo(UserChange.Type.CREATED);
+        assertThat(changes.get(1).getSeq()).isEqualTo(3L);
+        assertThat(changes.get(1).getUser().getUsername()).isEqualTo("second");
+    }
+
+    // 구독자에게 보내는 중에 flush가 돌면 그 구독자는 건너뛰지만, 보내던 전송이 끝날 때 이어서 받아야 한다.
+    @Test
+    void deliversChangesFlushedWhileSending() throws Exception {
+        BlockingObjectMapper objectMapper = new BlockingObjectMapper();
+        UserChangeFeed slowFeed = new UserChangeFeed(objectMapper, 16, 60_000, 100, 2, 10, 60_000, 60_000, 60_000);
+        try {
+            slowFeed.onUserChanged(UserChangedEvent.deleted(1L));
+            slowFeed.subscribe(0); // seq 1을 따라잡는 전송이 본문을 만들다 멈춘다.
+            assertThat(objectMapper.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            slowFeed.onUserChanged(UserChangedEvent.deleted(2L));
+            slowFeed.flush(); // 보내는 중이라 건너뛴다.
+            objectMapper.release.countDown();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (objectMapper.written.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(objectMapper.written).hasSize(2);
+            assertThat(objectMapper.written.get(1)).contains("\"seq\":2");
+        } finally {
+            slowFeed.shutdown();
+        }
+    }
+
+    // 뒤처진 구독자가 따라잡으면서 같은 변경을 다시 합쳐도 합친 변경 수는 flush에서 한 번만 센다.
+    @Test
+    void countsCoalescedChangesOnlyOnFlush() throws Exception {
+        BlockingObjectMapper objectMapper = new BlockingObjectMapper();
+        objectMapper.release.countDown();
+        UserChangeFeed countingFeed = new UserChangeFeed(objectMapper, 16, 60_000, 100, 1, 10, 60_000, 60_000, 60_000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        countingFeed.bindTo(registry);
+        try {
+            countingFeed.onUserChanged(UserChangedEvent.created(user(1, "first")));
+            countingFeed.onUserChanged(UserChangedEvent.updated(user(1, "second")));
+            countingFeed.onUserChanged(UserChangedEvent.created(user(2, "other")));
+            countingFeed.flush();
+
+            countingFeed.subscribe(0); // seq 0부터 따라잡는 전송이 같은 변경을 다시 합친다.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (objectMapper.written.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(objectMapper.written).hasSize(1);
+            assertThat(registry.get("users.changes.coalesced").functionCounter().count()).isEqualTo(1);
+        } finally {
+            countingFeed.shutdown();
+        }
+    }
+
+    private static User user(long id, String username) {
+        return User.builder().id(id).uid(username + "@restful.com").username(username).build();
+    }
+
+    // 처음 직렬화할 때 release될 때까지 멈추고, 직렬화한 SSE 본문을 기록한다.
+    private static class BlockingObjectMapper extends ObjectMapper {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> written = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String writeValueAsString(Object value) throws JsonProcessingException {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String json = super.writeValueAsString(value);
+            written.add(json);
+            return json;
+        }
+    }
+}